@@ -17,7 +17,6 @@
 package com.alibaba.cloud.ai.graph.bigtool.agent;
 
 import com.alibaba.cloud.ai.graph.bigtool.constants.Constant;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,28 +26,25 @@ import com.alibaba.cloud.ai.graph.action.NodeAction;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.document.Document;
 import org.springframework.ai.tool.ToolCallback;
-import org.springframework.ai.tool.definition.DefaultToolDefinition;
-import org.springframework.ai.tool.method.MethodToolCallback;
-import org.springframework.ai.tool.support.ToolUtils;
-import org.springframework.ai.util.json.schema.JsonSchemaGenerator;
-import org.springframework.util.ReflectionUtils;
-import org.springframework.util.StringUtils;
 
+/**
+ * Solves the request with the tools picked by {@link ToolAgent}. Callbacks come from a
+ * shared {@link ToolCallbackRegistry} and the hit tools are read from the state of the
+ * current run only, so the node is safe to share between concurrent runs.
+ */
 public class CalculateAgent implements NodeAction {
 
-	private List<Document> documents;
-
-	private ChatClient chatClient;
+	private final ChatClient chatClient;
 
-	private String inputTextKey;
+	private final String inputTextKey;
 
-	private String inputText;
+	private final ToolCallbackRegistry toolCallbackRegistry;
 
-	public CalculateAgent(ChatClient chatClient, String inputTextKey) {
+	public CalculateAgent(ChatClient chatClient, String inputTextKey, ToolCallbackRegistry toolCallbackRegistry) {
 		this.chatClient = chatClient;
 		this.inputTextKey = inputTextKey;
+		this.toolCallbackRegistry = toolCallbackRegistry;
 	}
 
 	private static final String CLASSIFIER_PROMPT_TEMPLATE = """
@@ -59,31 +55,10 @@ public class CalculateAgent implements NodeAction {
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
-		if (documents == null) {
-			this.documents = (List<Document>) state.value(Constant.HIT_TOOL).orElseThrow();
-		}
-
-		List<ToolCallback> toolCallbacks = new ArrayList<>();
-		for (Document document : documents) {
-			var toolMethod = ReflectionUtils.findMethod(Math.class, document.getMetadata().get(Constant.METHOD_NAME).toString(),
-					(Class<?>[]) document.getMetadata().get(Constant.METHOD_PARAMETER_TYPES));
-
-			DefaultToolDefinition.Builder toolDefinitionBuilder = DefaultToolDefinition.builder()
-				.name(ToolUtils.getToolName(toolMethod))
-				.description(ToolUtils.getToolDescription(toolMethod))
-				.inputSchema(JsonSchemaGenerator.generateForMethodInput(toolMethod));
-
-			MethodToolCallback build = MethodToolCallback.builder()
-				.toolDefinition(toolDefinitionBuilder.build())
-				.toolMethod(toolMethod)
-				.build();
-
-			toolCallbacks.add(build);
-		}
+		List<String> hitTools = (List<String>) state.value(Constant.HIT_TOOL).orElseThrow();
+		List<ToolCallback> toolCallbacks = toolCallbackRegistry.resolve(hitTools);
 
-		if (StringUtils.hasLength(inputTextKey)) {
-			this.inputText = (String) state.value(inputTextKey).orElse(this.inputText);
-		}
+		String inputText = (String) state.value(inputTextKey).orElseThrow();
 
 		ChatResponse response = chatClient.prompt()
 			.system(CLASSIFIER_PROMPT_TEMPLATE)
@@ -23,23 +23,24 @@ import com.alibaba.cloud.ai.graph.bigtool.constants.Constant;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.document.Document;
-import org.springframework.util.StringUtils;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Picks the candidate tools for a request. The node holds no per-request state, so a
+ * single instance can serve concurrent graph runs.
+ */
 public class ToolAgent implements NodeAction {
 
-	private List<Document> documents;
-
-	private ChatClient chatClient;
+	private static final int TOP_K = 3;
 
-	private String inputTextKey;
+	private final ChatClient chatClient;
 
-	private String inputText;
+	private final String inputTextKey;
 
-	private VectorStoreService vectorStoreService;
+	private final VectorStoreService vectorStoreService;
 
 	public ToolAgent(ChatClient chatClient, String inputTextKey, VectorStoreService vectorStoreService) {
 		this.chatClient = chatClient;
@@ -47,12 +48,6 @@ public class ToolAgent implements NodeAction {
 		this.vectorStoreService = vectorStoreService;
 	}
 
-	public ToolAgent(ChatClient chatClient, String inputTextKey, List<Document> documents) {
-		this.documents = documents;
-		this.chatClient = chatClient;
-		this.inputTextKey = inputTextKey;
-	}
-
 	private static final String CLASSIFIER_PROMPT_TEMPLATE = """
 			### Job Description
 			You are a text keyword extraction engine that can analyze the questions passed in by users and extract the main keywords of this sentence.
@@ -65,13 +60,7 @@ public class ToolAgent implements NodeAction {
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
-		if (documents == null) {
-			this.documents = (List<Document>) state.value(Constant.TOOL_LIST).orElseThrow();
-		}
-
-		if (StringUtils.hasLength(inputTextKey)) {
-			this.inputText = (String) state.value(inputTextKey).orElse(this.inputText);
-		}
+		String inputText = (String) state.value(inputTextKey).orElseThrow();
 
 		ChatResponse response = chatClient.prompt()
 			.system(CLASSIFIER_PROMPT_TEMPLATE)
@@ -79,13 +68,12 @@ public class ToolAgent implements NodeAction {
 			.call()
 			.chatResponse();
 
-		List<Document> hitTool = vectorStoreService.search(response.getResult().getOutput().getText(), 3);
+		String keywords = response.getResult().getOutput().getText();
+		List<String> hitTool = vectorStoreService.search(keywords, TOP_K).stream().map(Document::getId).toList();
 
 		Map<String, Object> updatedState = new HashMap<>();
 		updatedState.put(Constant.HIT_TOOL, hitTool);
-		if (state.value(inputTextKey).isPresent()) {
-			updatedState.put(inputTextKey, response.getResult().getOutput().getText());
-		}
+		updatedState.put(inputTextKey, keywords);
 
 		return updatedState;
 	}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.bigtool.agent;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+import org.springframework.ai.tool.method.MethodToolCallback;
+import org.springframework.ai.tool.support.ToolUtils;
+import org.springframework.ai.util.json.schema.JsonSchemaGenerator;
+
+/**
+ * Immutable registry of tool callbacks, keyed by method signature such as
+ * {@code max(double,double)}. Callbacks are built once, so graph nodes only do a map
+ * lookup per request instead of reflection and JSON schema generation.
+ */
+public final class ToolCallbackRegistry {
+
+	private final Map<String, ToolCallback> callbacks;
+
+	private ToolCallbackRegistry(Map<String, ToolCallback> callbacks) {
+		this.callbacks = Collections.unmodifiableMap(callbacks);
+	}
+
+	/**
+	 * Build a registry holding one callback for every public static method of the given
+	 * type.
+	 * @param type The class whose static methods are exposed as tools
+	 * @return The registry
+	 */
+	public static ToolCallbackRegistry ofStaticMethods(Class<?> type) {
+		Map<String, ToolCallback> callbacks = new LinkedHashMap<>();
+		for (Method method : type.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers())) {
+				callbacks.putIfAbsent(signature(method), toCallback(method));
+			}
+		}
+		return new ToolCallbackRegistry(callbacks);
+	}
+
+	/**
+	 * Stable id of a method, used as the tool document id and in graph state.
+	 * @param method The method
+	 * @return The method name followed by its parameter types
+	 */
+	public static String signature(Method method) {
+		return Arrays.stream(method.getParameterTypes())
+			.map(Class::getSimpleName)
+			.collect(Collectors.joining(",", method.getName() + "(", ")"));
+	}
+
+	/**
+	 * Resolve the callbacks for the given tool ids.
+	 * @param toolIds The hit tool ids
+	 * @return The matching callbacks, in id order
+	 */
+	public List<ToolCallback> resolve(List<String> toolIds) {
+		List<ToolCallback> resolved = new ArrayList<>(toolIds.size());
+		for (String toolId : toolIds) {
+			ToolCallback callback = callbacks.get(toolId);
+			if (callback == null) {
+				throw new IllegalArgumentException("Unknown tool id: " + toolId);
+			}
+			resolved.add(callback);
+		}
+		return resolved;
+	}
+
+	public Set<String> signatures() {
+		return callbacks.keySet();
+	}
+
+	private static ToolCallback toCallback(Method method) {
+		DefaultToolDefinition toolDefinition = DefaultToolDefinition.builder()
+			.name(ToolUtils.getToolName(method))
+			.description(ToolUtils.getToolDescription(method))
+			.inputSchema(JsonSchemaGenerator.generateForMethodInput(method))
+			.build();
+
+		return MethodToolCallback.builder().toolDefinition(toolDefinition).toolMethod(method).build();
+	}
+
+}
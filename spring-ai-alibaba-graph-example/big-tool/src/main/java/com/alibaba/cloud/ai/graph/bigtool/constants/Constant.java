@@ -24,10 +24,6 @@ public class Constant {
 
 	public static final String SOLUTION = "solution";
 
-	public static final String TOOL_LIST = "tool_list";
-
-	public static final String METHOD_PARAMETER_TYPES = "parameter_types";
-
 	public static final String METHOD_NAME = "method_name";
 
 }
@@ -16,7 +16,6 @@
 
 package com.alibaba.cloud.ai.graph.bigtool.controller;
 
-import cn.hutool.core.util.IdUtil;
 import com.alibaba.cloud.ai.graph.CompiledGraph;
 import com.alibaba.cloud.ai.graph.GraphRepresentation;
 import com.alibaba.cloud.ai.graph.KeyStrategy;
@@ -26,10 +25,9 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.action.AsyncNodeAction;
 import com.alibaba.cloud.ai.graph.bigtool.agent.CalculateAgent;
-import com.alibaba.cloud.ai.graph.bigtool.agent.Tool;
+import com.alibaba.cloud.ai.graph.bigtool.agent.ToolCallbackRegistry;
 import com.alibaba.cloud.ai.graph.bigtool.agent.ToolAgent;
 import com.alibaba.cloud.ai.graph.bigtool.service.VectorStoreService;
-import com.alibaba.cloud.ai.graph.bigtool.utils.MethodUtils;
 import com.alibaba.cloud.ai.graph.bigtool.constants.Constant;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
@@ -39,13 +37,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.document.Document;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.lang.reflect.Method;
 import java.util.*;
 
 import static com.alibaba.cloud.ai.graph.StateGraph.END;
@@ -62,22 +58,19 @@ public class BigToolController {
 
 	private CompiledGraph compiledGraph;
 
-	private List<Document> documents = new ArrayList<>();
-
 	public BigToolController(VectorStoreService vectorStoreService, ChatModel chatModel) throws GraphStateException {
 		this.vectorStoreService = vectorStoreService;
-		this.initializeVectorStore();
 		ChatClient chatClient = ChatClient.builder(chatModel).defaultAdvisors(new SimpleLoggerAdvisor()).build();
 
 		KeyStrategyFactory keyStrategyFactory = new KeyStrategyFactoryBuilder()
 				.addPatternStrategy(Constant.INPUT_KEY, new ReplaceStrategy())
 				.addPatternStrategy(Constant.HIT_TOOL, new ReplaceStrategy())
-				.addPatternStrategy(Constant.SOLUTION, new ReplaceStrategy())
-				.addPatternStrategy(Constant.TOOL_LIST, new ReplaceStrategy()).build();
+				.addPatternStrategy(Constant.SOLUTION, new ReplaceStrategy()).build();
 
 		ToolAgent tools = new ToolAgent(chatClient, Constant.INPUT_KEY, vectorStoreService);
 
-		CalculateAgent calculateAgent = new CalculateAgent(chatClient, Constant.INPUT_KEY);
+		CalculateAgent calculateAgent = new CalculateAgent(chatClient, Constant.INPUT_KEY,
+				ToolCallbackRegistry.ofStaticMethods(Math.class));
 
 		StateGraph stateGraph = new StateGraph("Consumer Service Workflow Demo", keyStrategyFactory)
 			.addNode("tools", AsyncNodeAction.node_async(tools))
@@ -97,27 +90,9 @@ public class BigToolController {
 
 	}
 
-	private void initializeVectorStore() {
-		List<Tool> allTools = new ArrayList<>();
-		for (Method method : Math.class.getMethods()) {
-			if (java.lang.reflect.Modifier.isStatic(method.getModifiers())) {
-				Tool tool = MethodUtils.convertMethodToTool(method);
-				if (tool != null) {
-					allTools.add(tool);
-				}
-			}
-		}
-
-		allTools.forEach(tool -> documents.add(new Document(IdUtil.fastSimpleUUID(), tool.getDescription(),
-				Map.of(Constant.METHOD_NAME, tool.getName(), Constant.METHOD_PARAMETER_TYPES, tool.getParameterTypes()))));
-
-		vectorStoreService.addDocuments(documents);
-
-	}
-
 	@GetMapping("/search")
 	public String search(@RequestParam String query) {
-		Optional<OverAllState> invoke = compiledGraph.call(Map.of(Constant.INPUT_KEY, query, Constant.TOOL_LIST, documents));
+		Optional<OverAllState> invoke = compiledGraph.call(Map.of(Constant.INPUT_KEY, query));
 		return invoke.get().value("solution").get().toString();
 	}
 
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.bigtool.service;
+
+import com.alibaba.cloud.ai.graph.bigtool.utils.MethodUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+
+/**
+ * Command line entry point that writes the tool catalog to
+ * {@code big-tool.catalog.generate-to} and stops the application. Run it through the
+ * {@code tool-catalog} Maven profile, see the module README.
+ */
+@Component
+@ConditionalOnProperty("big-tool.catalog.generate-to")
+public class ToolCatalogGenerator implements ApplicationRunner {
+
+	private final ToolCatalogService toolCatalogService;
+
+	private final ConfigurableApplicationContext context;
+
+	private final String generateTo;
+
+	public ToolCatalogGenerator(ToolCatalogService toolCatalogService, ConfigurableApplicationContext context,
+			@Value("${big-tool.catalog.generate-to}") String generateTo) {
+		this.toolCatalogService = toolCatalogService;
+		this.context = context;
+		this.generateTo = generateTo;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		toolCatalogService.generate(MethodUtils.fetchMathMethodJavadoc(), new File(generateTo));
+		System.exit(SpringApplication.exit(context, () -> 0));
+	}
+
+}
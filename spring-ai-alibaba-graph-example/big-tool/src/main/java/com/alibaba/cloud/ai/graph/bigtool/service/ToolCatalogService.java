@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.bigtool.service;
+
+import com.alibaba.cloud.ai.graph.bigtool.agent.Tool;
+import com.alibaba.cloud.ai.graph.bigtool.agent.ToolCallbackRegistry;
+import com.alibaba.cloud.ai.graph.bigtool.constants.Constant;
+import com.alibaba.cloud.ai.graph.bigtool.utils.MethodUtils;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the vector store with the tool catalog.
+ *
+ * <p>
+ * At startup the catalog is read from {@code big-tool.catalog.location}, a
+ * {@link org.springframework.ai.vectorstore.SimpleVectorStore} file holding the tool
+ * descriptions and their embeddings, so no network call is needed. The file is produced
+ * by {@link ToolCatalogGenerator}, which fetches the Math Javadoc, embeds every tool and
+ * saves the store. Generate it again whenever the embedding model changes, see the
+ * module README.
+ *
+ * <p>
+ * Without a catalog file the tools are described from their signatures only, without
+ * fetching any documentation, and embedded at startup.
+ *
+ * <p>
+ * Document ids are the tool signatures of {@link ToolCallbackRegistry}, so graph state
+ * only has to carry ids.
+ */
+@Service
+public class ToolCatalogService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ToolCatalogService.class);
+
+	private final VectorStoreService vectorStoreService;
+
+	private final Resource catalog;
+
+	private final String generateTo;
+
+	public ToolCatalogService(VectorStoreService vectorStoreService,
+			@Value("${big-tool.catalog.location:classpath:tool-catalog.json}") Resource catalog,
+			@Value("${big-tool.catalog.generate-to:}") String generateTo) {
+		this.vectorStoreService = vectorStoreService;
+		this.catalog = catalog;
+		this.generateTo = generateTo;
+	}
+
+	@PostConstruct
+	public void initialize() {
+		long start = System.nanoTime();
+		if (StringUtils.hasText(generateTo)) {
+			// ToolCatalogGenerator fills the store, embedding it here as well would be wasted.
+			return;
+		}
+		if (catalog.exists()) {
+			vectorStoreService.load(catalog);
+			logger.info("Loaded tool catalog {} in {} ms", catalog, elapsedMillis(start));
+		}
+		else {
+			List<Document> documents = buildDocuments(Map.of());
+			vectorStoreService.addDocuments(documents);
+			logger.warn("Tool catalog {} not found, embedded {} tools at startup in {} ms", catalog,
+					documents.size(), elapsedMillis(start));
+		}
+	}
+
+	/**
+	 * Embed every tool, described from the given Javadoc, and save the store.
+	 * @param javadoc Method descriptions, as returned by
+	 * {@link MethodUtils#fetchMathMethodJavadoc()}
+	 * @param target The catalog file to write
+	 * @return The number of tools written
+	 */
+	public int generate(Map<String, String> javadoc, File target) {
+		long start = System.nanoTime();
+		List<Document> documents = buildDocuments(javadoc);
+		vectorStoreService.addDocuments(documents);
+		vectorStoreService.save(target);
+		logger.info("Generated tool catalog with {} tools at {} in {} ms", documents.size(), target,
+				elapsedMillis(start));
+		return documents.size();
+	}
+
+	static List<Document> buildDocuments(Map<String, String> javadoc) {
+		List<Document> documents = new ArrayList<>();
+		for (Method method : Math.class.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers())) {
+				Tool tool = MethodUtils.convertMethodToTool(method, javadoc);
+				if (tool != null) {
+					documents.add(new Document(ToolCallbackRegistry.signature(method), tool.getDescription(),
+							Map.of(Constant.METHOD_NAME, tool.getName())));
+				}
+			}
+		}
+		return documents;
+	}
+
+	private static long elapsedMillis(long start) {
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+}
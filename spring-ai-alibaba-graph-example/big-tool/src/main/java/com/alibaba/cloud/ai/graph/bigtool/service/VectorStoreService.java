@@ -21,9 +21,10 @@ import org.springframework.ai.embedding.EmbeddingModel;
 
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.SimpleVectorStore;
-import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
 import java.util.List;
 
 @Service
@@ -31,7 +32,7 @@ public class VectorStoreService {
 
 	private final EmbeddingModel embeddingModel;
 
-	private final VectorStore vectorStore;
+	private final SimpleVectorStore vectorStore;
 
 	public VectorStoreService(EmbeddingModel embeddingModel) {
 		this.embeddingModel = embeddingModel;
@@ -42,6 +43,18 @@ public class VectorStoreService {
 		vectorStore.add(documents);
 	}
 
+	/**
+	 * Load documents together with their precomputed embeddings, without calling the
+	 * embedding model.
+	 */
+	public void load(Resource resource) {
+		vectorStore.load(resource);
+	}
+
+	public void save(File file) {
+		vectorStore.save(file);
+	}
+
 	public List<Document> search(String query, int topK) {
 		return vectorStore.similaritySearch(SearchRequest.builder().query(query).topK(topK).build());
 	}
@@ -29,31 +29,25 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Utility class for converting Java methods to LangChain tools
  */
 public class MethodUtils {
 
-	// Cache for retrieved Javadoc to avoid repeated requests
-	private static final Map<String, String> JAVADOC_CACHE = new ConcurrentHashMap<>();
-	static ConcurrentHashMap<String, String> methodMap;
-
-	static {
-		try {
-			methodMap = fetchMathMethodJavadoc();
-		}
-		catch (Exception e) {
-			throw new RuntimeException(e);
-		}
-	}
+	private static final Logger logger = LoggerFactory.getLogger(MethodUtils.class);
 
 	/**
 	 * Convert a Java method to a LangChain tool
 	 * @param method The Java method to convert
+	 * @param javadoc Method descriptions keyed by Javadoc signature, as returned by
+	 * {@link #fetchMathMethodJavadoc()}; may be empty to describe the method from its
+	 * signature only
 	 * @return The converted Tool object, or null if conversion fails
 	 */
-	public static Tool convertMethodToTool(Method method) {
+	public static Tool convertMethodToTool(Method method, Map<String, String> javadoc) {
 		if (method == null) {
 			return null;
 		}
@@ -64,14 +58,14 @@ public class MethodUtils {
 			Class<?>[] paramTypes = method.getParameterTypes();
 
 			// Get method Javadoc description - try different sources in layers
-			String javadoc = getMethodJavadoc(method);
+			String summary = getMethodJavadoc(method, javadoc);
 
 			// Create method description
 			StringBuilder description = new StringBuilder();
 
-			if (javadoc != null && !javadoc.isEmpty()) {
+			if (summary != null && !summary.isEmpty()) {
 				// Use retrieved Javadoc
-				description.append(javadoc);
+				description.append(summary);
 			}
 			else {
 				// If Javadoc can't be retrieved, create a basic description
@@ -136,20 +130,21 @@ public class MethodUtils {
 	 * @param method The method to get documentation for
 	 * @return The method's Javadoc description, or null if unavailable
 	 */
-	private static String getMethodJavadoc(Method method) {
-		for (String s : methodMap.keySet()) {
+	private static String getMethodJavadoc(Method method, Map<String, String> javadoc) {
+		for (String s : javadoc.keySet()) {
 			if (s.contains(method.getName())) {
-				return methodMap.get(s);
+				return javadoc.get(s);
 			}
 		}
 		return null;
 	}
 
 	/**
-	 * Fetch Javadoc for Math class methods from Oracle's online documentation
-	 * @return Method Javadoc descriptions
+	 * Fetch Javadoc for Math class methods from Oracle's online documentation. Only used
+	 * when the tool catalog is generated, never at application startup.
+	 * @return Method Javadoc descriptions, empty if the documentation is unreachable
 	 */
-	private static ConcurrentHashMap<String, String> fetchMathMethodJavadoc() throws Exception {
+	public static Map<String, String> fetchMathMethodJavadoc() {
 
 		// Network request implementation to get documentation (simplified version)
 		try {
@@ -176,22 +171,20 @@ public class MethodUtils {
 				Document parse = Jsoup.parse(content.toString());
 				Elements tbody = parse.select("table.memberSummary").get(1).select("tbody");
 				for (Element element : tbody.select("tr")) {
-					String text = element.select("td.colFirst").text();
 					String text1 = element.select("th.colSecond").text();
 					String text2 = element.select("td.colLast").text();
-					System.out.println(text + "\t" + text1 + "\t" + text2);
 					stringObjectHashMap.put(text1, text2);
 				}
 			}
 
-			System.out.println("Retrieved method descriptions:" + stringObjectHashMap);
+			logger.info("Retrieved {} method descriptions", stringObjectHashMap.size());
 			return stringObjectHashMap;
 		}
 		catch (Exception e) {
-			System.out.println("Failed to retrieve online documentation: " + e.getMessage());
+			logger.warn("Failed to retrieve online documentation: {}", e.getMessage());
 		}
 
-		return null;
+		return Map.of();
 	}
 
 	/**
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.bigtool.agent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.bigtool.constants.Constant;
+import com.alibaba.cloud.ai.graph.bigtool.service.VectorStoreService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs many requests at once through one shared {@link ToolAgent} and
+ * {@link CalculateAgent} pair, and checks that every run only sees and offers the tools
+ * picked for itself.
+ */
+class BigToolAgentsTests {
+
+	private static final int RUNS = 500;
+
+	private static final Pattern TAG = Pattern.compile("\\[run-\\d{4}]");
+
+	private final ToolCallbackRegistry registry = ToolCallbackRegistry.ofStaticMethods(Math.class);
+
+	private final List<String> signatures = registry.signatures().stream().sorted().toList();
+
+	/** Tool callbacks the model was offered, by run tag. */
+	private final Map<String, List<ToolCallback>> offered = new ConcurrentHashMap<>();
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(32);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentRunsOnlyOfferTheirOwnTools() throws Exception {
+		VectorStoreService vectorStoreService = mock(VectorStoreService.class);
+		when(vectorStoreService.search(anyString(), anyInt())).thenAnswer(invocation -> {
+			String keywords = invocation.getArgument(0);
+			return toolIds(runOf(tagOf(keywords))).stream()
+				.map(id -> Document.builder().id(id).text(id).build())
+				.toList();
+		});
+
+		ChatClient chatClient = ChatClient.create(new StubChatModel());
+		ToolAgent toolAgent = new ToolAgent(chatClient, Constant.INPUT_KEY, vectorStoreService);
+		CalculateAgent calculateAgent = new CalculateAgent(chatClient, Constant.INPUT_KEY, registry);
+
+		CountDownLatch start = new CountDownLatch(1);
+		Map<Integer, CompletableFuture<Map<String, Object>>> runs = new HashMap<>();
+		for (int i = 0; i < RUNS; i++) {
+			String input = "solve " + tag(i);
+			runs.put(i, CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+					Map<String, Object> data = new HashMap<>(Map.of(Constant.INPUT_KEY, input));
+					data.putAll(toolAgent.apply(new OverAllState(data)));
+					data.putAll(calculateAgent.apply(new OverAllState(data)));
+					return data;
+				}
+				catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}, executor));
+		}
+		start.countDown();
+		CompletableFuture.allOf(runs.values().toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+
+		assertThat(offered).hasSize(RUNS);
+		IntStream.range(0, RUNS).forEach(i -> {
+			Map<String, Object> data = runs.get(i).join();
+			assertThat(data.get(Constant.HIT_TOOL)).as("hit tools of run %d", i).isEqualTo(toolIds(i));
+			assertThat(offered.get(tag(i))).as("tools offered to run %d", i)
+				.containsExactlyElementsOf(registry.resolve(toolIds(i)));
+			assertThat(data.get(Constant.SOLUTION)).isEqualTo("solved " + tag(i));
+		});
+	}
+
+	/** Three tools per run, shifted by the run number so neighbouring runs differ. */
+	private List<String> toolIds(int run) {
+		List<String> ids = new ArrayList<>();
+		for (int k = 0; k < 3; k++) {
+			ids.add(signatures.get((run + k * 7) % signatures.size()));
+		}
+		return ids;
+	}
+
+	private static String tag(int i) {
+		return String.format("[run-%04d]", i);
+	}
+
+	private static String tagOf(String text) {
+		Matcher matcher = TAG.matcher(text);
+		return matcher.find() ? matcher.group() : "";
+	}
+
+	private static int runOf(String tag) {
+		return Integer.parseInt(tag.substring(5, tag.length() - 1));
+	}
+
+	/**
+	 * Extracts the run tag as the keywords when no tools are offered, and records the
+	 * offered tools by run tag otherwise.
+	 */
+	private final class StubChatModel implements ChatModel {
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			String tag = tagOf(prompt.getUserMessage().getText());
+			List<ToolCallback> toolCallbacks = prompt.getOptions() instanceof ToolCallingChatOptions options
+					? options.getToolCallbacks() : List.of();
+			if (toolCallbacks.isEmpty()) {
+				return response("keywords " + tag);
+			}
+			offered.put(tag, List.copyOf(toolCallbacks));
+			return response("solved " + tag);
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.just(call(prompt));
+		}
+
+		@Override
+		public ChatOptions getDefaultOptions() {
+			// tool callbacks are only merged into tool calling options.
+			return ToolCallingChatOptions.builder().build();
+		}
+
+		private static ChatResponse response(String text) {
+			return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+		}
+
+	}
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.bigtool.service;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.bigtool.agent.ToolAgent;
+import com.alibaba.cloud.ai.graph.bigtool.agent.ToolCallbackRegistry;
+import com.alibaba.cloud.ai.graph.bigtool.constants.Constant;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what the precomputed catalog saves: startup time and embedding calls, and the
+ * size of the graph state each request carries. The stub embedding model sleeps per text
+ * to stand in for the round trip to the embedding api.
+ */
+class ToolCatalogServiceTests {
+
+	private static final Duration EMBEDDING_LATENCY = Duration.ofMillis(5);
+
+	private static final Map<String, String> JAVADOC = Map.of("max(double a, double b)",
+			"Returns the greater of two double values.");
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void loadingTheCatalogMakesNoEmbeddingCalls() {
+		File catalog = generateCatalog();
+
+		StubEmbeddingModel fallbackModel = new StubEmbeddingModel();
+		long fallbackMillis = timeInitialize(new ToolCatalogService(new VectorStoreService(fallbackModel),
+				new FileSystemResource(tempDir.resolve("missing.json")), ""));
+
+		StubEmbeddingModel loadModel = new StubEmbeddingModel();
+		VectorStoreService loaded = new VectorStoreService(loadModel);
+		long loadMillis = timeInitialize(new ToolCatalogService(loaded, new FileSystemResource(catalog), ""));
+
+		assertThat(loadModel.texts).isEmpty();
+		assertThat(fallbackModel.texts).hasSize(ToolCatalogService.buildDocuments(Map.of()).size());
+		assertThat(loadMillis).as("catalog load %d ms, embedding at startup %d ms", loadMillis, fallbackMillis)
+			.isLessThan(fallbackMillis);
+
+		List<Document> hits = loaded.search("greater of two values", 3);
+		assertThat(hits).hasSize(3);
+		assertThat(ToolCallbackRegistry.ofStaticMethods(Math.class).signatures())
+			.containsAll(hits.stream().map(Document::getId).toList());
+	}
+
+	@Test
+	void fallbackDescribesToolsFromTheirSignaturesOnly() {
+		StubEmbeddingModel embeddingModel = new StubEmbeddingModel();
+
+		new ToolCatalogService(new VectorStoreService(embeddingModel),
+				new FileSystemResource(tempDir.resolve("missing.json")), "")
+			.initialize();
+
+		assertThat(embeddingModel.texts).isNotEmpty().allSatisfy(text -> assertThat(text).contains("A method that accepts"));
+	}
+
+	@Test
+	void generationRunSkipsTheStartupEmbedding() {
+		StubEmbeddingModel embeddingModel = new StubEmbeddingModel();
+
+		new ToolCatalogService(new VectorStoreService(embeddingModel),
+				new FileSystemResource(tempDir.resolve("missing.json")), tempDir.resolve("out.json").toString())
+			.initialize();
+
+		assertThat(embeddingModel.texts).isEmpty();
+	}
+
+	@Test
+	void requestStateCarriesOnlyToolIds() throws Exception {
+		VectorStoreService vectorStoreService = new VectorStoreService(new StubEmbeddingModel());
+		new ToolCatalogService(vectorStoreService, new FileSystemResource(generateCatalog()), "").initialize();
+		ToolAgent toolAgent = new ToolAgent(ChatClient.create(new KeywordChatModel()), Constant.INPUT_KEY,
+				vectorStoreService);
+
+		Map<String, Object> state = new HashMap<>(Map.of(Constant.INPUT_KEY, "what is the larger of 3 and 5"));
+		state.putAll(toolAgent.apply(new OverAllState(state)));
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		int stateBytes = objectMapper.writeValueAsBytes(state).length;
+		// what every request used to carry: the whole tool list in the graph state.
+		int toolListBytes = objectMapper.writeValueAsBytes(ToolCatalogService.buildDocuments(Map.of())
+			.stream()
+			.map(document -> Map.of("id", document.getId(), "text", document.getText(), "metadata",
+					document.getMetadata()))
+			.toList()).length;
+
+		assertThat((List<?>) state.get(Constant.HIT_TOOL)).hasSize(3);
+		assertThat(stateBytes).as("state %d bytes, tool list %d bytes", stateBytes, toolListBytes)
+			.isLessThan(1024)
+			.isLessThan(toolListBytes / 20);
+	}
+
+	private File generateCatalog() {
+		File catalog = tempDir.resolve("tool-catalog.json").toFile();
+		if (!catalog.exists()) {
+			int tools = new ToolCatalogService(new VectorStoreService(new StubEmbeddingModel()),
+					new FileSystemResource(catalog), catalog.getPath())
+				.generate(JAVADOC, catalog);
+			assertThat(tools).isPositive();
+		}
+		assertThat(catalog).exists();
+		return catalog;
+	}
+
+	private static long timeInitialize(ToolCatalogService service) {
+		long start = System.nanoTime();
+		service.initialize();
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	/**
+	 * Hashes every text into a small unit vector and records the texts it was asked to
+	 * embed.
+	 */
+	private static final class StubEmbeddingModel implements EmbeddingModel {
+
+		private final Queue<String> texts = new ConcurrentLinkedQueue<>();
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			List<Embedding> embeddings = new ArrayList<>();
+			for (String text : request.getInstructions()) {
+				texts.add(text);
+				sleep(EMBEDDING_LATENCY);
+				embeddings.add(new Embedding(vector(text), embeddings.size()));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return call(new EmbeddingRequest(List.of(document.getText()), null)).getResult().getOutput();
+		}
+
+		private static float[] vector(String text) {
+			byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+			float[] vector = new float[8];
+			for (int i = 0; i < bytes.length; i++) {
+				vector[i % vector.length] += bytes[i];
+			}
+			double norm = 0;
+			for (float value : vector) {
+				norm += value * value;
+			}
+			for (int i = 0; i < vector.length; i++) {
+				vector[i] = (float) (vector[i] / Math.sqrt(norm));
+			}
+			return vector;
+		}
+
+		private static void sleep(Duration duration) {
+			try {
+				Thread.sleep(duration.toMillis());
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+	/**
+	 * Answers the keyword extraction prompt with the user question itself.
+	 */
+	private static final class KeywordChatModel implements ChatModel {
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			return new ChatResponse(List.of(new Generation(new AssistantMessage(prompt.getUserMessage().getText()))));
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.just(call(prompt));
+		}
+
+	}
+
+}
@@ -20,7 +20,7 @@ import com.alibaba.cloud.ai.graph.CompiledGraph;
 import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
-import com.alibaba.cloud.ai.graph.controller.process.GraphProcess;
+import com.alibaba.cloud.ai.graph.controller.process.TypedGraphProcess;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -85,7 +85,7 @@ public class GraphStreamController {
 		initialState.put("input", input);
 
 		// Create graph processor
-		GraphProcess graphProcess = new GraphProcess();
+		TypedGraphProcess graphProcess = new TypedGraphProcess();
 
 		// Get streaming output
 //		AsyncGenerator<NodeOutput> resultStream = compiledGraph.stream(initialState, runnableConfig);
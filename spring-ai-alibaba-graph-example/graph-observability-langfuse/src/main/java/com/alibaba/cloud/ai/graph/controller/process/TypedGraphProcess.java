@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.controller.process;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.sse.GraphProcess;
+import com.alibaba.cloud.ai.graph.sse.StateDeltaEncoder;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Graph Processor
+ *
+ * Converts NodeOutput to typed SSE events: every payload carries a type, node outputs are
+ * sent as node_output events, and the stream always ends with a completed event, also
+ * after an error. Buffering, cancellation and delta encoding come from the shared
+ * {@link GraphProcess}.
+ *
+ * @author sixiyida
+ */
+public class TypedGraphProcess extends GraphProcess {
+
+	@Override
+	protected ServerSentEvent<String> streamingEvent(StreamingOutput output) {
+		return ServerSentEvent
+			.builder(JSON.toJSONString(Map.of("type", "streaming", "node", output.node(), "chunk", output.chunk(),
+					"timestamp", System.currentTimeMillis())))
+			.event("node_output")
+			.id(output.node() + "_" + System.currentTimeMillis())
+			.build();
+	}
+
+	@Override
+	protected ServerSentEvent<String> nodeEvent(NodeOutput output, StateDeltaEncoder.Delta delta) {
+		JSONObject nodeOutput = deltaJson(delta);
+		nodeOutput.put("type", "node_output");
+		nodeOutput.put("timestamp", System.currentTimeMillis());
+		return ServerSentEvent.builder(JSON.toJSONString(nodeOutput))
+			.event("node_output")
+			.id(output.node() + "_" + System.currentTimeMillis())
+			.build();
+	}
+
+	@Override
+	protected Flux<ServerSentEvent<String>> errorEvents(Throwable error) {
+		ServerSentEvent<String> errorEvent = ServerSentEvent
+			.builder(JSON.toJSONString(Map.of("type", "error", "message", String.valueOf(error.getMessage()))))
+			.event("error")
+			.build();
+		return Flux.just(errorEvent, completedEvent("Graph processing completed with error"));
+	}
+
+	@Override
+	protected Flux<ServerSentEvent<String>> completedEvents() {
+		return Flux.just(completedEvent("Graph processing completed"));
+	}
+
+	private static ServerSentEvent<String> completedEvent(String message) {
+		return ServerSentEvent.builder(JSON.toJSONString(Map.of("type", "completed", "message", message)))
+			.event("completed")
+			.build();
+	}
+
+}
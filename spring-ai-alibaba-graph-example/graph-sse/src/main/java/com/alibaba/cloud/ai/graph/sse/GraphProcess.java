@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.sse;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 将图执行的 NodeOutput 流桥接为 SSE, 供各个流式图示例共用.
+ *
+ * <p>返回的 Flux 直接订阅图的输出流, 客户端断开时取消会传递到图的执行;
+ * 事件缓冲有上限, 默认溢出时丢弃最旧的事件; 非流式输出经 {@link StateDeltaEncoder} 只发送发生变化的 state key.
+ *
+ * <p>事件格式可以通过覆盖 {@link #streamingEvent}, {@link #nodeEvent}, {@link #errorEvents}
+ * 和 {@link #completedEvents} 定制, 缓冲与增量编码保持不变.
+ *
+ * @author yingzi
+ * @since 2025/6/13
+ */
+
+public class GraphProcess {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphProcess.class);
+
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final int bufferSize;
+
+    private final BufferOverflowStrategy overflowStrategy;
+
+    public GraphProcess() {
+        this(DEFAULT_BUFFER_SIZE, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * @param bufferSize 客户端消费过慢时最多缓存的事件数
+     * @param overflowStrategy 缓冲区满时的处理策略, DROP_* 会丢弃事件, ERROR 会以 error 事件结束本次流
+     */
+    public GraphProcess(int bufferSize, BufferOverflowStrategy overflowStrategy) {
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    public Flux<ServerSentEvent<String>> processStream(Flux<NodeOutput> nodeOutputFlux) {
+        return processStream(nodeOutputFlux, false);
+    }
+
+    /**
+     * 按需拉取 AsyncGenerator 的输出, 客户端断开后不再拉取.
+     */
+    public Flux<ServerSentEvent<String>> processStream(AsyncGenerator<NodeOutput> generator) {
+        return processStream(Flux.create(sink -> processNext(generator, sink)));
+    }
+
+    /**
+     * @param fullSnapshot 第一个节点输出是否发送完整 state, 用于 resume 时客户端重建基线
+     */
+    public Flux<ServerSentEvent<String>> processStream(Flux<NodeOutput> nodeOutputFlux, boolean fullSnapshot) {
+        // 每次订阅独立的编码器, 并发请求互不影响
+        return Flux.defer(() -> {
+                    StateDeltaEncoder encoder = new StateDeltaEncoder();
+                    AtomicBoolean snapshotPending = new AtomicBoolean(fullSnapshot);
+                    return nodeOutputFlux.map(output -> toEvent(output, encoder, snapshotPending))
+                            .onBackpressureBuffer(bufferSize, dropped -> {
+                                logger.debug("SSE buffer is full, drop event: {}", dropped.data());
+                                // 丢弃的增量无法补回, 下一个节点输出改为完整快照
+                                snapshotPending.set(true);
+                            }, overflowStrategy);
+                })
+                .concatWith(Flux.defer(this::completedEvents))
+                // 放在缓冲之后, 缓冲溢出 (ERROR 策略) 同样转为 error 事件
+                .onErrorResume(error -> {
+                    logger.error("Error occurred in graph stream", error);
+                    return errorEvents(error);
+                })
+                .doOnCancel(() -> logger.debug("SSE subscriber cancelled, graph stream cancelled"));
+    }
+
+    private ServerSentEvent<String> toEvent(NodeOutput output, StateDeltaEncoder encoder, AtomicBoolean snapshotPending) {
+        logger.debug("output = {}", output);
+        if (output instanceof StreamingOutput streamingOutput) {
+            return streamingEvent(streamingOutput);
+        }
+        StateDeltaEncoder.Delta delta = snapshotPending.getAndSet(false)
+                ? encoder.snapshot(output.node(), output.state().data())
+                : encoder.encode(output.node(), output.state().data());
+        return nodeEvent(output, delta);
+    }
+
+    /**
+     * 流式输出的一个分片, 默认格式为 {@code {node: chunk}}
+     */
+    protected ServerSentEvent<String> streamingEvent(StreamingOutput output) {
+        return ServerSentEvent.builder(JSON.toJSONString(Map.of(output.node(), output.chunk()))).build();
+    }
+
+    /**
+     * 节点完成后的 state 增量
+     */
+    protected ServerSentEvent<String> nodeEvent(NodeOutput output, StateDeltaEncoder.Delta delta) {
+        return ServerSentEvent.builder(JSON.toJSONString(deltaJson(delta))).build();
+    }
+
+    /**
+     * 增量的 JSON 表示, 子类可以在此基础上追加字段
+     */
+    protected JSONObject deltaJson(StateDeltaEncoder.Delta delta) {
+        JSONObject nodeOutput = new JSONObject();
+        nodeOutput.put("data", delta.data());
+        nodeOutput.put("node", delta.node());
+        nodeOutput.put("removed", delta.removed());
+        nodeOutput.put("versions", delta.versions());
+        nodeOutput.put("seq", delta.sequence());
+        nodeOutput.put("snapshot", delta.snapshot());
+        return nodeOutput;
+    }
+
+    /**
+     * 图执行出错或缓冲溢出 (ERROR 策略) 时发送的事件, 之后结束本次流
+     */
+    protected Flux<ServerSentEvent<String>> errorEvents(Throwable error) {
+        return Flux.just(ServerSentEvent.builder(JSON.toJSONString(Map.of("error", String.valueOf(error.getMessage()))))
+                .event("error")
+                .build());
+    }
+
+    /**
+     * 图正常执行完成后追加的事件, 默认没有
+     */
+    protected Flux<ServerSentEvent<String>> completedEvents() {
+        return Flux.empty();
+    }
+
+    private void processNext(AsyncGenerator<NodeOutput> generator, FluxSink<NodeOutput> sink) {
+        if (sink.isCancelled()) {
+            logger.debug("SSE subscriber cancelled, stop pulling the generator");
+            return;
+        }
+        AsyncGenerator.Data<NodeOutput> data = generator.next();
+        if (data.isDone()) {
+            sink.complete();
+            return;
+        }
+        data.getData().whenComplete((output, ex) -> {
+            if (ex != null) {
+                sink.error(ex);
+            } else if (data.isError()) {
+                sink.error(new IllegalStateException("Graph generator returned an error"));
+            } else {
+                sink.next(output);
+                processNext(generator, sink);
+            }
+        });
+    }
+}
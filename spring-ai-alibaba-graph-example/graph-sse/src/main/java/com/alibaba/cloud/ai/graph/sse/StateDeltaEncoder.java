@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.sse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 单次运行的 state 增量编码器.
+ *
+ * <p>为每个 state key 维护版本号, 每个节点完成后只返回相对上一个节点新增, 变化或移除的 key.
+ * 客户端按 key 合并 {@code data} 并删除 {@code removed} 中的 key 即可还原 state,
+ * 需要重建基线时 (例如 resume) 可以要求一次完整快照.
+ *
+ * <p>编码器保存每个值的副本: Map 和集合递归复制, 两个节点之间被原地修改的值同样会被发送;
+ * 其他值按引用保存并用 {@code equals} 比较, 应当是字符串, 数字, 消息这类不可变对象.
+ *
+ * <p>非线程安全, 每次运行 (每次订阅) 创建一个.
+ */
+public class StateDeltaEncoder {
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    private final Map<String, Long> versions = new HashMap<>();
+
+    private long sequence;
+
+    /**
+     * 记录当前 state, 返回相对上一次调用发生变化的 key
+     */
+    public Delta encode(String node, Map<String, Object> data) {
+        Map<String, Object> changed = new HashMap<>();
+        Map<String, Long> changedVersions = new HashMap<>();
+        data.forEach((key, value) -> {
+            // equals 先比较引用, 未变化的长文本不会逐字比较
+            if (values.containsKey(key) && Objects.equals(values.get(key), value)) {
+                return;
+            }
+            Object copy = copyOf(value);
+            values.put(key, copy);
+            changed.put(key, copy);
+            changedVersions.put(key, versions.merge(key, 1L, Long::sum));
+        });
+
+        List<String> removed = new ArrayList<>();
+        Iterator<String> keys = values.keySet().iterator();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (!data.containsKey(key)) {
+                keys.remove();
+                removed.add(key);
+                changedVersions.put(key, versions.merge(key, 1L, Long::sum));
+            }
+        }
+
+        return new Delta(node, ++sequence, false, changed, removed, changedVersions);
+    }
+
+    /**
+     * 记录当前 state 并返回全部内容, 客户端据此重建基线
+     */
+    public Delta snapshot(String node, Map<String, Object> data) {
+        encode(node, data);
+        Map<String, Long> currentVersions = new HashMap<>();
+        values.keySet().forEach(key -> currentVersions.put(key, versions.get(key)));
+        return new Delta(node, sequence, true, new HashMap<>(values), List.of(), currentVersions);
+    }
+
+    private static Object copyOf(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, element) -> copy.put(key, copyOf(element)));
+            return copy;
+        }
+        if (value instanceof Set<?> set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            set.forEach(element -> copy.add(copyOf(element)));
+            return copy;
+        }
+        if (value instanceof Collection<?> collection) {
+            List<Object> copy = new ArrayList<>(collection.size());
+            collection.forEach(element -> copy.add(copyOf(element)));
+            return copy;
+        }
+        return value;
+    }
+
+    /**
+     * @param node 刚完成的节点
+     * @param sequence 本次运行内的事件序号
+     * @param snapshot data 是否为完整 state
+     * @param data 发生变化的 key 及新值, 快照时为全部 key
+     * @param removed 已不在 state 中的 key, 快照时为空
+     * @param versions data 与 removed 中每个 key 的新版本号
+     */
+    public record Delta(String node, long sequence, boolean snapshot, Map<String, Object> data,
+            List<String> removed, Map<String, Long> versions) {
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.sse;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SSE 桥接在大量并发流下的正确性: 每个流的事件完整有序, 客户端按增量能还原最终 state,
+ * 慢客户端丢弃事件后收到完整快照, 客户端断开时取消传递到图的输出流.
+ */
+class GraphProcessTests {
+
+    private static final int STREAMS = 2000;
+
+    private static final int NODES = 10;
+
+    private static final int CHUNKS_PER_NODE = 2;
+
+    @Test
+    void concurrentStreamsKeepTheirOwnOrderedEvents() {
+        GraphProcess graphProcess = new GraphProcess();
+
+        long start = System.nanoTime();
+        Map<Integer, List<ServerSentEvent<String>>> streams = Flux.range(0, STREAMS)
+                .flatMap(stream -> graphProcess.processStream(nodeOutputs(stream, NODES)
+                                .publishOn(Schedulers.parallel()))
+                        .collectList()
+                        .map(events -> Map.entry(stream, events)), STREAMS)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block(Duration.ofMinutes(2));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(streams).as("%d streams in %d ms", STREAMS, elapsed.toMillis()).hasSize(STREAMS);
+        IntStream.range(0, STREAMS).forEach(stream -> {
+            List<ServerSentEvent<String>> events = streams.get(stream);
+            assertThat(events).hasSize(NODES * (CHUNKS_PER_NODE + 1));
+
+            Map<String, Object> rebuilt = new HashMap<>();
+            long sequence = 0;
+            for (ServerSentEvent<String> event : events) {
+                JSONObject json = JSON.parseObject(event.data());
+                if (json.containsKey("seq")) {
+                    assertThat(json.getLongValue("seq")).isEqualTo(++sequence);
+                    apply(rebuilt, json);
+                } else {
+                    assertThat(json.getString("node-" + sequence))
+                            .as("chunk of stream %d", stream)
+                            .startsWith("stream-" + stream + "/");
+                }
+            }
+            assertThat(sequence).isEqualTo(NODES);
+            assertThat(json(rebuilt)).isEqualTo(json(state(stream, NODES - 1)));
+        });
+    }
+
+    @Test
+    void slowClientGetsASnapshotAfterDroppedEvents() {
+        GraphProcess graphProcess = new GraphProcess(4, BufferOverflowStrategy.DROP_OLDEST);
+        List<JSONObject> received = new ArrayList<>();
+        BaseSubscriber<ServerSentEvent<String>> client = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<String> event) {
+                received.add(JSON.parseObject(event.data()));
+            }
+        };
+
+        // 同步发出全部输出, 客户端只请求了一个事件, 其余的在缓冲区中溢出
+        graphProcess.processStream(nodeStates(0, 100)).subscribe(client);
+        client.requestUnbounded();
+
+        assertThat(received).hasSize(5);
+        JSONObject last = received.get(received.size() - 1);
+        assertThat(last.getBooleanValue("snapshot")).isTrue();
+        assertThat(last.getLongValue("seq")).isEqualTo(100);
+        Map<String, Object> rebuilt = new HashMap<>();
+        apply(rebuilt, last);
+        assertThat(json(rebuilt)).isEqualTo(json(state(0, 99)));
+    }
+
+    @Test
+    void bufferOverflowWithErrorStrategyEndsWithAnErrorEvent() {
+        GraphProcess graphProcess = new GraphProcess(4, BufferOverflowStrategy.ERROR);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<ServerSentEvent<String>> received = new ArrayList<>();
+        BaseSubscriber<ServerSentEvent<String>> client = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<String> event) {
+                received.add(event);
+            }
+        };
+
+        graphProcess.processStream(nodeStates(0, 100).doOnCancel(() -> cancelled.set(true))).subscribe(client);
+        client.requestUnbounded();
+
+        assertThat(cancelled).isTrue();
+        assertThat(received.get(received.size() - 1).event()).isEqualTo("error");
+    }
+
+    @Test
+    void clientDisconnectCancelsTheGraphStream() {
+        GraphProcess graphProcess = new GraphProcess();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<NodeOutput> endless = Flux.interval(Duration.ofMillis(1))
+                .map(step -> NodeOutput.of("node-" + step, new OverAllState(state(0, step.intValue()))))
+                .doOnCancel(() -> cancelled.set(true));
+
+        List<ServerSentEvent<String>> events = graphProcess.processStream(endless)
+                .take(3)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(events).hasSize(3);
+        assertThat(cancelled).isTrue();
+    }
+
+    /**
+     * 每个节点先输出若干流式分片, 再输出节点完成后的 state
+     */
+    private static Flux<NodeOutput> nodeOutputs(int stream, int nodes) {
+        return Flux.range(0, nodes).concatMap(step -> {
+            OverAllState state = new OverAllState(state(stream, step));
+            List<NodeOutput> outputs = new ArrayList<>();
+            for (int chunk = 0; chunk < CHUNKS_PER_NODE; chunk++) {
+                outputs.add(new StreamingOutput("stream-" + stream + "/" + chunk, "node-" + step, state));
+            }
+            outputs.add(NodeOutput.of("node-" + step, state));
+            return Flux.fromIterable(outputs);
+        });
+    }
+
+    private static Flux<NodeOutput> nodeStates(int stream, int nodes) {
+        return Flux.range(0, nodes).map(step -> NodeOutput.of("node-" + step, new OverAllState(state(stream, step))));
+    }
+
+    /**
+     * 每一步都会修改 step 和 history, 偶数步会多出一个 scratch key, 下一步移除
+     */
+    private static Map<String, Object> state(int stream, int step) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("stream", stream);
+        state.put("step", step);
+        state.put("history", IntStream.rangeClosed(0, step).boxed().toList());
+        if (step % 2 == 0) {
+            state.put("scratch", "scratch-" + step);
+        }
+        return state;
+    }
+
+    private static JSONObject json(Map<String, Object> state) {
+        return JSON.parseObject(JSON.toJSONString(state));
+    }
+
+    private static void apply(Map<String, Object> state, JSONObject event) {
+        if (event.getBooleanValue("snapshot")) {
+            state.clear();
+        }
+        state.putAll(event.getJSONObject("data"));
+        event.getJSONArray("removed").forEach(state::remove);
+    }
+}
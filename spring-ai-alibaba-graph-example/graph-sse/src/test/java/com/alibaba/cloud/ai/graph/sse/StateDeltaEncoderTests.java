@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.sse;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StateDeltaEncoderTests {
+
+    private final StateDeltaEncoder encoder = new StateDeltaEncoder();
+
+    @Test
+    void onlyChangedKeysAreSent() {
+        encoder.encode("a", Map.of("query", "hello", "answer", "draft"));
+
+        StateDeltaEncoder.Delta delta = encoder.encode("b", Map.of("query", "hello", "answer", "final"));
+
+        assertThat(delta.data()).containsOnly(Map.entry("answer", "final"));
+        assertThat(delta.removed()).isEmpty();
+        assertThat(delta.versions()).containsOnly(Map.entry("answer", 2L));
+        assertThat(delta.sequence()).isEqualTo(2);
+        assertThat(delta.snapshot()).isFalse();
+    }
+
+    @Test
+    void removedKeysAreSent() {
+        encoder.encode("a", Map.of("query", "hello", "scratch", "tmp"));
+
+        StateDeltaEncoder.Delta delta = encoder.encode("b", Map.of("query", "hello"));
+
+        assertThat(delta.data()).isEmpty();
+        assertThat(delta.removed()).containsExactly("scratch");
+        assertThat(delta.versions()).containsOnly(Map.entry("scratch", 2L));
+
+        // 再次出现的 key 作为变化发送, 版本号继续递增
+        StateDeltaEncoder.Delta readded = encoder.encode("c", Map.of("query", "hello", "scratch", "tmp"));
+        assertThat(readded.data()).containsOnly(Map.entry("scratch", "tmp"));
+        assertThat(readded.versions()).containsOnly(Map.entry("scratch", 3L));
+    }
+
+    @Test
+    void valuesMutatedInPlaceAreSent() {
+        List<String> messages = new ArrayList<>(List.of("first"));
+        Map<String, Object> nested = new HashMap<>(Map.of("count", 1));
+        Map<String, Object> state = new HashMap<>(Map.of("messages", messages, "nested", nested));
+        encoder.encode("a", state);
+
+        messages.add("second");
+        nested.put("count", 2);
+        StateDeltaEncoder.Delta delta = encoder.encode("b", state);
+
+        assertThat(delta.data()).containsOnlyKeys("messages", "nested");
+        assertThat(delta.data().get("messages")).isEqualTo(List.of("first", "second"));
+        assertThat(delta.data().get("nested")).isEqualTo(Map.of("count", 2));
+
+        // 发送的是副本, 之后的修改不会影响已发送的增量
+        messages.add("third");
+        assertThat(delta.data().get("messages")).isEqualTo(List.of("first", "second"));
+        assertThat(encoder.encode("c", state).data()).containsOnlyKeys("messages");
+    }
+
+    @Test
+    void snapshotAfterADroppedEventRebuildsTheState() {
+        Map<String, Object> client = new HashMap<>();
+        apply(client, encoder.encode("a", Map.of("query", "hello", "scratch", "tmp")));
+        // 这个增量在缓冲区溢出时被丢弃, 客户端没有收到
+        encoder.encode("b", Map.of("query", "hello", "answer", "draft"));
+
+        StateDeltaEncoder.Delta snapshot = encoder.snapshot("c", Map.of("query", "hello", "answer", "final"));
+        apply(client, snapshot);
+
+        assertThat(snapshot.snapshot()).isTrue();
+        assertThat(snapshot.sequence()).isEqualTo(3);
+        assertThat(snapshot.removed()).isEmpty();
+        assertThat(snapshot.versions()).containsOnly(Map.entry("query", 1L), Map.entry("answer", 2L));
+        assertThat(client).containsOnly(Map.entry("query", "hello"), Map.entry("answer", "final"));
+
+        // 快照之后继续只发送增量
+        StateDeltaEncoder.Delta next = encoder.encode("d", Map.of("query", "hello", "answer", "final"));
+        assertThat(next.data()).isEmpty();
+        assertThat(next.removed()).isEmpty();
+    }
+
+    private static void apply(Map<String, Object> client, StateDeltaEncoder.Delta delta) {
+        if (delta.snapshot()) {
+            client.clear();
+        }
+        client.putAll(delta.data());
+        delta.removed().forEach(client::remove);
+    }
+}
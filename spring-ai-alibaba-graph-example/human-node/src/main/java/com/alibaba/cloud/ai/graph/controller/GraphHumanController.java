@@ -25,9 +25,9 @@ import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
 import com.alibaba.cloud.ai.graph.checkpoint.constant.SaverEnum;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
-import com.alibaba.cloud.ai.graph.controller.GraphProcess.GraphProcess;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
+import com.alibaba.cloud.ai.graph.sse.GraphProcess;
 import com.alibaba.cloud.ai.graph.state.StateSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,7 +40,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -72,19 +71,17 @@ public class GraphHumanController {
         objectMap.put("query", query);
         objectMap.put("expander_number", expanderNumber);
 
-        GraphProcess graphProcess = new GraphProcess(this.compiledGraph);
-        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast().onBackpressureBuffer();
+        GraphProcess graphProcess = new GraphProcess();
         Flux<NodeOutput> nodeOutputFlux = compiledGraph.fluxStream(objectMap, runnableConfig);
-        graphProcess.processStream(nodeOutputFlux, sink);
-
-        return sink.asFlux()
+        return graphProcess.processStream(nodeOutputFlux)
                 .doOnCancel(() -> logger.info("Client disconnected from stream"))
                 .doOnError(e -> logger.error("Error occurred during streaming", e));
     }
 
     @GetMapping(value = "/resume", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<String>> resume(@RequestParam(value = "thread_id", defaultValue = "yingzi", required = false) String threadId,
-                                      @RequestParam(value = "feed_back", defaultValue = "true", required = false) boolean feedBack) throws GraphRunnerException {
+                                      @RequestParam(value = "feed_back", defaultValue = "true", required = false) boolean feedBack,
+                                      @RequestParam(value = "full_snapshot", defaultValue = "false", required = false) boolean fullSnapshot) throws GraphRunnerException {
         RunnableConfig runnableConfig = RunnableConfig.builder().threadId(threadId).build();
         StateSnapshot stateSnapshot = this.compiledGraph.getState(runnableConfig);
         OverAllState state = stateSnapshot.state();
@@ -95,13 +92,10 @@ public class GraphHumanController {
 
         state.withHumanFeedback(new OverAllState.HumanFeedback(objectMap, ""));
 
-        // Create a unicast sink to emit ServerSentEvents
-        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast().onBackpressureBuffer();
-        GraphProcess graphProcess = new GraphProcess(this.compiledGraph);
+        GraphProcess graphProcess = new GraphProcess();
         Flux<NodeOutput> resultFuture = compiledGraph.fluxStreamFromInitialNode(state, runnableConfig);
-        graphProcess.processStream(resultFuture, sink);
-
-        return sink.asFlux()
+        // 客户端重连后可以要求先收到一次完整 state 作为基线
+        return graphProcess.processStream(resultFuture, fullSnapshot)
                 .doOnCancel(() -> logger.info("Client disconnected from stream"))
                 .doOnError(e -> logger.error("Error occurred during streaming", e));    }
 }
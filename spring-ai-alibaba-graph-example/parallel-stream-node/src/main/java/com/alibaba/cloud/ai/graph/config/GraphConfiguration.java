@@ -23,8 +23,8 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
-import com.alibaba.cloud.ai.graph.model.NodeStatus;
 import com.alibaba.cloud.ai.graph.node.ExpanderNode;
+import com.alibaba.cloud.ai.graph.node.JoinBarrier;
 import com.alibaba.cloud.ai.graph.node.TranslateNode;
 import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
 import org.slf4j.Logger;
@@ -33,8 +33,10 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
 
@@ -47,6 +49,8 @@ public class GraphConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(GraphConfiguration.class);
 
+    private static final Duration JOIN_TIMEOUT = Duration.ofSeconds(60);
+
     @Bean
     public StateGraph parallelStreamGraph(ChatClient.Builder chatClientBuilder) throws GraphStateException {
         KeyStrategyFactory keyStrategyFactory = new KeyStrategyFactoryBuilder()
@@ -56,14 +60,17 @@ public class GraphConfiguration {
                 .addPatternStrategy("translate_language", new ReplaceStrategy())
                 .addPatternStrategy("translate_content", new ReplaceStrategy())
                 .addPatternStrategy("merge_result", new ReplaceStrategy())
+                .addPatternStrategy(JoinBarrier.RUN_ID, new ReplaceStrategy())
                 .build();
 
-        Map<String, NodeStatus> node2Status = new HashMap<>();
+        // 汇合屏障按 run_id 隔离, 并发请求之间互不影响
+        JoinBarrier joinBarrier = new JoinBarrier(Set.of(ExpanderNode.NODE_NAME, TranslateNode.NODE_NAME),
+                JOIN_TIMEOUT, JoinBarrier.TimeoutPolicy.PARTIAL_MERGE);
 
         StateGraph stateGraph = new StateGraph(keyStrategyFactory)
-                .addNode(ExpanderNode.NODE_NAME, node_async(new ExpanderNode(chatClientBuilder, node2Status)))
-                .addNode(TranslateNode.NODE_NAME, node_async(new TranslateNode(chatClientBuilder, node2Status)))
-                .addNode(MergeResultsNode.NODE_NAME, node_async(new MergeResultsNode(node2Status)))
+                .addNode(ExpanderNode.NODE_NAME, node_async(new ExpanderNode(chatClientBuilder, joinBarrier)))
+                .addNode(TranslateNode.NODE_NAME, node_async(new TranslateNode(chatClientBuilder, joinBarrier)))
+                .addNode(MergeResultsNode.NODE_NAME, node_async(new MergeResultsNode(joinBarrier)))
 
                 .addEdge(StateGraph.START, TranslateNode.NODE_NAME)
                 .addEdge(StateGraph.START, ExpanderNode.NODE_NAME)
@@ -83,32 +90,31 @@ public class GraphConfiguration {
         return stateGraph;
     }
 
-    private class MergeResultsNode implements NodeAction {
+    private static class MergeResultsNode implements NodeAction {
 
         public static final String NODE_NAME = "merge";
 
-        private final Map<String, NodeStatus> node2Status;
+        private final JoinBarrier joinBarrier;
 
-        public MergeResultsNode(Map<String, NodeStatus> node2Status) {
-            this.node2Status = node2Status;
+        public MergeResultsNode(JoinBarrier joinBarrier) {
+            this.joinBarrier = joinBarrier;
         }
 
         @Override
         public Map<String, Object> apply(OverAllState state) {
-            if (!isDone(node2Status)) {
+            // 等待两个分支都完成, 同一次运行只会合并一次
+            Optional<Map<String, Map<String, Object>>> outputs = joinBarrier.await(JoinBarrier.runId(state));
+            if (outputs.isEmpty()) {
                 return Map.of();
             }
 
-            Object expanderContent = state.value("expander_content").orElse("unknown");
-            String translateContent = (String) state.value("translate_content").orElse("");
+            Object expanderContent = outputs.get().getOrDefault(ExpanderNode.NODE_NAME, Map.of())
+                    .getOrDefault("expander_content", "unknown");
+            Object translateContent = outputs.get().getOrDefault(TranslateNode.NODE_NAME, Map.of())
+                    .getOrDefault("translate_content", "");
 
             return Map.of("merge_result", Map.of("expander_content", expanderContent,
                     "translate_content", translateContent));
         }
-
-        private boolean isDone(Map<String, NodeStatus> node2Status) {
-            return node2Status.get(ExpanderNode.NODE_NAME) == NodeStatus.COMPLETED
-                    && node2Status.get(TranslateNode.NODE_NAME) == NodeStatus.COMPLETED;
-        }
     }
 }
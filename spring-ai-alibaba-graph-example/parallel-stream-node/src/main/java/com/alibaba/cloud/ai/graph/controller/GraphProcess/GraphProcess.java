@@ -1,72 +0,0 @@
-/*
- * Copyright 2025-2026 the original author or authors.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *      https://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.alibaba.cloud.ai.graph.controller.GraphProcess;
-
-import com.alibaba.cloud.ai.graph.CompiledGraph;
-import com.alibaba.cloud.ai.graph.NodeOutput;
-import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.http.codec.ServerSentEvent;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
-
-import java.util.Map;
-
-/**
- * @author yingzi
- * @since 2025/6/13
- */
-
-public class GraphProcess {
-
-    private static final Logger logger = LoggerFactory.getLogger(GraphProcess.class);
-
-    private CompiledGraph compiledGraph;
-
-    public GraphProcess(CompiledGraph compiledGraph) {
-        this.compiledGraph = compiledGraph;
-    }
-
-    public void processStream(Flux<NodeOutput> nodeOutputFlux, Sinks.Many<ServerSentEvent<String>> sink) {
-        nodeOutputFlux
-                .doOnNext(output -> {
-                    logger.info("output = {}", output);
-                    String nodeName = output.node();
-                    String content;
-                    if (output instanceof StreamingOutput streamingOutput) {
-                        content = JSON.toJSONString(Map.of(nodeName, streamingOutput.chunk()));
-                    } else {
-                        JSONObject nodeOutput = new JSONObject();
-                        nodeOutput.put("data", output.state().data());
-                        nodeOutput.put("node", nodeName);
-                        content = JSON.toJSONString(nodeOutput);
-                    }
-                    sink.tryEmitNext(ServerSentEvent.builder(content).build());
-                })
-                .doOnComplete(() -> {
-                    // 正常完成
-                    sink.tryEmitComplete();
-                })
-                .doOnError(e -> {
-                    logger.error("Error occurred during streaming", e);
-                    sink.tryEmitError(e);
-                })
-                .subscribe();
-    }
-}
@@ -20,9 +20,10 @@ import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
-import com.alibaba.cloud.ai.graph.controller.GraphProcess.GraphProcess;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
+import com.alibaba.cloud.ai.graph.node.JoinBarrier;
+import com.alibaba.cloud.ai.graph.sse.GraphProcess;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -33,10 +34,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * @author yingzi
@@ -64,13 +65,12 @@ public class GraphStreamController {
         objectMap.put("query", query);
         objectMap.put("expander_number", expanderNumber);
         objectMap.put("translate_language", translateLanguage);
+        // 每次运行独立的 id, 并行分支与汇合节点据此找到同一个汇合屏障
+        objectMap.put(JoinBarrier.RUN_ID, UUID.randomUUID().toString());
 
-        GraphProcess graphProcess = new GraphProcess(this.compiledGraph);
-        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast().onBackpressureBuffer();
+        GraphProcess graphProcess = new GraphProcess();
         Flux<NodeOutput> nodeOutputFlux = compiledGraph.fluxStream(objectMap, runnableConfig);
-        graphProcess.processStream(nodeOutputFlux, sink);
-
-        return sink.asFlux()
+        return graphProcess.processStream(nodeOutputFlux)
                 .doOnCancel(() -> logger.info("Client disconnected from stream"))
                 .doOnError(e -> logger.error("Error occurred during streaming", e));
     }
@@ -20,7 +20,6 @@ import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
-import com.alibaba.cloud.ai.graph.model.NodeStatus;
 import com.alibaba.cloud.ai.graph.streaming.FluxConverter;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
@@ -32,6 +31,7 @@ import reactor.core.publisher.Flux;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 /**
  * @author yingzi
@@ -46,23 +46,25 @@ public class ExpanderNode implements NodeAction {
 
     private final Integer NUMBER = 3;
 
-    private final Map<String, NodeStatus> node2Status;
+    private final JoinBarrier joinBarrier;
 
     public static final String NODE_NAME = "expander";
 
-    public ExpanderNode(ChatClient.Builder chatClientBuilder, Map<String, NodeStatus> node2Status) {
+    public ExpanderNode(ChatClient.Builder chatClientBuilder, JoinBarrier joinBarrier) {
         this.chatClient = chatClientBuilder.build();
-        this.node2Status = node2Status;
+        this.joinBarrier = joinBarrier;
     }
 
     @Override
     public Map<String, Object> apply(OverAllState state) {
-        node2Status.put(NODE_NAME, NodeStatus.RUNNING);
-
+        String runId = JoinBarrier.runId(state);
         String query = state.value("query", "");
         Integer expanderNumber = state.value("expander_number", this.NUMBER);
 
-        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt().user((user) -> user.text(DEFAULT_PROMPT_TEMPLATE.getTemplate()).param("number", expanderNumber).param("query", query)).stream().chatResponse();
+        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt().user((user) -> user.text(DEFAULT_PROMPT_TEMPLATE.getTemplate()).param("number", expanderNumber).param("query", query)).stream().chatResponse()
+                // 分支失败或被取消时通知汇合屏障, merge 不必等到超时
+                .doOnError(e -> joinBarrier.fail(runId, NODE_NAME, e))
+                .doOnCancel(() -> joinBarrier.fail(runId, NODE_NAME, new CancellationException("Branch " + NODE_NAME + " cancelled")));
 
         Flux<GraphResponse<StreamingOutput>> generator = FluxConverter.builder()
                 .startingNode("expander_llm_stream")
@@ -70,8 +72,9 @@ public class ExpanderNode implements NodeAction {
                 .mapResult(response -> {
                     String text = response.getResult().getOutput().getText();
                     List<String> queryVariants = Arrays.asList(text.split("\n"));
-                    node2Status.put(NODE_NAME, NodeStatus.COMPLETED);
-                    return Map.of("expander_content", queryVariants);
+                    Map<String, Object> output = Map.of("expander_content", queryVariants);
+                    joinBarrier.arrive(runId, NODE_NAME, output);
+                    return output;
                 }).build(chatResponseFlux);
         return Map.of("expander_content", generator);
     }
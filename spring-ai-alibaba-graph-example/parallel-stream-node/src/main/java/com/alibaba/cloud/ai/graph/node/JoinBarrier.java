@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 并行分支的汇合屏障, 按运行 (run_id) 隔离.
+ *
+ * <p>每个分支完成时调用 {@link #arrive}, 汇合节点调用 {@link #await} 等待全部分支完成,
+ * 同一次运行内 await 只会返回一次结果, 保证 merge 恰好执行一次; 超时后按 {@link TimeoutPolicy} 处理.
+ * 分支出错或被取消时调用 {@link #fail}, 汇合节点无需等到超时.
+ *
+ * @since 2025/8/26
+ */
+
+public class JoinBarrier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JoinBarrier.class);
+
+    /**
+     * 存放运行 id 的 state key, 由发起运行的一方写入
+     */
+    public static final String RUN_ID = "run_id";
+
+    public enum TimeoutPolicy {
+
+        /**
+         * 用已完成分支的结果合并
+         */
+        PARTIAL_MERGE,
+
+        /**
+         * 抛出异常, 结束本次运行
+         */
+        FAIL
+    }
+
+    private final Set<String> branches;
+
+    private final Duration timeout;
+
+    private final TimeoutPolicy timeoutPolicy;
+
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    public JoinBarrier(Set<String> branches, Duration timeout, TimeoutPolicy timeoutPolicy) {
+        this.branches = Set.copyOf(branches);
+        this.timeout = timeout;
+        this.timeoutPolicy = timeoutPolicy;
+    }
+
+    /**
+     * 读取运行 id, 缺失时直接失败, 避免不同运行落到同一个 key 上
+     */
+    public static String runId(OverAllState state) {
+        return state.value(RUN_ID)
+                .map(Object::toString)
+                .filter(runId -> !runId.isBlank())
+                .orElseThrow(() -> new IllegalStateException("Missing " + RUN_ID + " in graph state"));
+    }
+
+    /**
+     * 分支完成, 记录该分支的输出
+     */
+    public void arrive(String runId, String branch, Map<String, Object> output) {
+        Run run = run(runId);
+        if (run.merged.get()) {
+            logger.debug("Run {} already merged, drop late output of branch {}", runId, branch);
+            return;
+        }
+        run.branch(branch).complete(output);
+    }
+
+    /**
+     * 分支出错或被取消, 汇合节点只合并其余分支
+     */
+    public void fail(String runId, String branch, Throwable cause) {
+        Run run = run(runId);
+        if (!run.merged.get() && run.branch(branch).completeExceptionally(cause)) {
+            logger.debug("Branch {} of run {} failed: {}", branch, runId, cause.toString());
+        }
+    }
+
+    /**
+     * 等待所有分支完成并返回各分支输出 (branch -> output).
+     * 同一次运行只有第一次调用返回结果, 之后的调用立即返回 empty.
+     * 合并后的运行保留为墓碑, 直到 {@link #purgeExpired} 清理, 迟到的调用不会重新创建运行.
+     */
+    public Optional<Map<String, Map<String, Object>>> await(String runId) {
+        Run run = run(runId);
+        if (!run.merged.compareAndSet(false, true)) {
+            logger.debug("Run {} already merged, skip", runId);
+            return Optional.empty();
+        }
+
+        try {
+            CompletableFuture.allOf(run.branches.values().toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (timeoutPolicy == TimeoutPolicy.FAIL) {
+                throw new IllegalStateException("Join barrier timed out after " + timeout + ", run: " + runId);
+            }
+            logger.warn("Join barrier timed out after {}, merge completed branches only, run: {}", timeout, runId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Join barrier interrupted, run: " + runId, e);
+        } catch (ExecutionException e) {
+            logger.warn("Branch failed, merge completed branches only, run: {}", runId, e.getCause());
+        }
+
+        Map<String, Map<String, Object>> outputs = new LinkedHashMap<>();
+        run.branches.forEach((branch, future) -> {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                outputs.put(branch, future.join());
+            }
+        });
+        return Optional.of(outputs);
+    }
+
+    private Run run(String runId) {
+        if (runId == null || runId.isBlank()) {
+            throw new IllegalArgumentException("Run id must not be empty");
+        }
+        purgeExpired();
+        return runs.computeIfAbsent(runId, id -> new Run(branches));
+    }
+
+    /**
+     * 清理超过超时时间两倍的运行, 包括已合并的墓碑和运行被取消后汇合节点未执行的运行
+     */
+    private void purgeExpired() {
+        long deadline = System.nanoTime() - timeout.toNanos() * 2;
+        runs.entrySet().removeIf(entry -> entry.getValue().createdAt - deadline < 0);
+    }
+
+    private static final class Run {
+
+        private final Map<String, CompletableFuture<Map<String, Object>>> branches = new HashMap<>();
+
+        private final AtomicBoolean merged = new AtomicBoolean();
+
+        private final long createdAt = System.nanoTime();
+
+        private Run(Set<String> branchNames) {
+            branchNames.forEach(name -> branches.put(name, new CompletableFuture<>()));
+        }
+
+        private CompletableFuture<Map<String, Object>> branch(String branch) {
+            CompletableFuture<Map<String, Object>> future = branches.get(branch);
+            if (future == null) {
+                throw new IllegalArgumentException("Unknown branch: " + branch);
+            }
+            return future;
+        }
+    }
+}
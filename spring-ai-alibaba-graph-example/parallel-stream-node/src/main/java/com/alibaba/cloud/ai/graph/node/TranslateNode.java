@@ -20,7 +20,6 @@ import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
-import com.alibaba.cloud.ai.graph.model.NodeStatus;
 import com.alibaba.cloud.ai.graph.streaming.FluxConverter;
 import com.alibaba.cloud.ai.graph.streaming.StreamingChatGenerator;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
@@ -30,6 +29,7 @@ import org.springframework.ai.chat.prompt.PromptTemplate;
 import reactor.core.publisher.Flux;
 
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 /**
  * @author yingzi
@@ -44,33 +44,36 @@ public class TranslateNode implements NodeAction {
 
     private final String  TARGET_LANGUAGE= "English";
 
-    private final Map<String, NodeStatus> node2Status;
+    private final JoinBarrier joinBarrier;
 
     public static final String NODE_NAME = "translate";
 
 
-    public TranslateNode(ChatClient.Builder chatClientBuilder, Map<String, NodeStatus> node2Status) {
+    public TranslateNode(ChatClient.Builder chatClientBuilder, JoinBarrier joinBarrier) {
         this.chatClient = chatClientBuilder.build();
-        this.node2Status = node2Status;
+        this.joinBarrier = joinBarrier;
     }
 
     @Override
     public Map<String, Object> apply(OverAllState state) {
-        node2Status.put(NODE_NAME, NodeStatus.RUNNING);
-
+        String runId = JoinBarrier.runId(state);
         String query = state.value("query", "");
         String targetLanguage = state.value("translate_language", TARGET_LANGUAGE);
 
-        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt().user((user) -> user.text(DEFAULT_PROMPT_TEMPLATE.getTemplate()).param("targetLanguage", targetLanguage).param("query", query)).stream().chatResponse();
+        Flux<ChatResponse> chatResponseFlux = this.chatClient.prompt().user((user) -> user.text(DEFAULT_PROMPT_TEMPLATE.getTemplate()).param("targetLanguage", targetLanguage).param("query", query)).stream().chatResponse()
+                // 分支失败或被取消时通知汇合屏障, merge 不必等到超时
+                .doOnError(e -> joinBarrier.fail(runId, NODE_NAME, e))
+                .doOnCancel(() -> joinBarrier.fail(runId, NODE_NAME, new CancellationException("Branch " + NODE_NAME + " cancelled")));
 
         Flux<GraphResponse<StreamingOutput>> generator = FluxConverter.builder()
                 .startingNode("translate_llm_stream")
                 .startingState(state)
                 .mapResult(response -> {
                     String text = response.getResult().getOutput().getText();
-                    node2Status.put(NODE_NAME, NodeStatus.COMPLETED);
                     assert text != null;
-                    return Map.of("translate_content", text);
+                    Map<String, Object> output = Map.of("translate_content", text);
+                    joinBarrier.arrive(runId, NODE_NAME, output);
+                    return output;
                 }).build(chatResponseFlux);
 
         return Map.of("translate_content", generator);
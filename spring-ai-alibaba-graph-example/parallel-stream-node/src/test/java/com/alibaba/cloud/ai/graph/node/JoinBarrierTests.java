@@ -0,0 +1,160 @@
+/*
+ * Copyright 2025-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 并发运行下汇合屏障的正确性: 每次运行恰好合并一次, 且只拿到本次运行的分支输出.
+ */
+class JoinBarrierTests {
+
+    private static final int RUNS = 1000;
+
+    private static final Set<String> BRANCHES = Set.of(ExpanderNode.NODE_NAME, TranslateNode.NODE_NAME);
+
+    // 分支不会阻塞, 与阻塞在 await 上的汇合调用分开, 避免互相占满线程
+    private final ExecutorService branchExecutor = Executors.newFixedThreadPool(32);
+
+    private final ExecutorService mergeExecutor = Executors.newFixedThreadPool(64);
+
+    @AfterEach
+    void tearDown() {
+        branchExecutor.shutdownNow();
+        mergeExecutor.shutdownNow();
+    }
+
+    @Test
+    void concurrentRunsMergeExactlyOnce() throws Exception {
+        JoinBarrier barrier = new JoinBarrier(BRANCHES, Duration.ofSeconds(30), JoinBarrier.TimeoutPolicy.FAIL);
+        Map<String, AtomicInteger> merges = new ConcurrentHashMap<>();
+        Map<String, Map<String, Map<String, Object>>> merged = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < RUNS; i++) {
+            String runId = "run-" + i;
+            merges.put(runId, new AtomicInteger());
+            for (String branch : BRANCHES) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    awaitQuietly(start);
+                    sleepRandomly();
+                    barrier.arrive(runId, branch, Map.of("value", runId + "/" + branch));
+                }, branchExecutor));
+            }
+            // 两条入边都会触发汇合节点, 只有一次调用可以合并
+            for (int k = 0; k < 2; k++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    awaitQuietly(start);
+                    Optional<Map<String, Map<String, Object>>> outputs = barrier.await(runId);
+                    outputs.ifPresent(result -> {
+                        merges.get(runId).incrementAndGet();
+                        merged.put(runId, result);
+                    });
+                }, mergeExecutor));
+            }
+        }
+
+        start.countDown();
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+
+        assertThat(merges.values()).allSatisfy(count -> assertThat(count).hasValue(1));
+        assertThat(merged).hasSize(RUNS);
+        merged.forEach((runId, outputs) -> {
+            assertThat(outputs).containsOnlyKeys(BRANCHES);
+            outputs.forEach((branch, output) -> assertThat(output).containsEntry("value", runId + "/" + branch));
+        });
+    }
+
+    @Test
+    void failedBranchDoesNotWaitForTheTimeout() {
+        JoinBarrier barrier = new JoinBarrier(BRANCHES, Duration.ofSeconds(30),
+                JoinBarrier.TimeoutPolicy.PARTIAL_MERGE);
+
+        barrier.arrive("run", ExpanderNode.NODE_NAME, Map.of("expander_content", List.of("a", "b")));
+        barrier.fail("run", TranslateNode.NODE_NAME, new IllegalStateException("model unavailable"));
+
+        long start = System.nanoTime();
+        Optional<Map<String, Map<String, Object>>> outputs = barrier.await("run");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(outputs).hasValueSatisfying(result -> assertThat(result).containsOnlyKeys(ExpanderNode.NODE_NAME));
+        assertThat(barrier.await("run")).isEmpty();
+    }
+
+    @Test
+    void mergedRunAnswersLateCallsImmediately() {
+        JoinBarrier barrier = new JoinBarrier(BRANCHES, Duration.ofSeconds(30),
+                JoinBarrier.TimeoutPolicy.PARTIAL_MERGE);
+        BRANCHES.forEach(branch -> barrier.arrive("run", branch, Map.of("value", branch)));
+        assertThat(barrier.await("run")).isPresent();
+
+        long start = System.nanoTime();
+        barrier.arrive("run", ExpanderNode.NODE_NAME, Map.of("value", "late"));
+        barrier.fail("run", TranslateNode.NODE_NAME, new IllegalStateException("late"));
+        Optional<Map<String, Map<String, Object>>> again = barrier.await("run");
+
+        assertThat(again).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void missingRunIdFailsFast() {
+        JoinBarrier barrier = new JoinBarrier(BRANCHES, Duration.ofSeconds(30), JoinBarrier.TimeoutPolicy.FAIL);
+
+        assertThatThrownBy(() -> JoinBarrier.runId(new OverAllState(Map.of("query", "hello"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> barrier.arrive("", ExpanderNode.NODE_NAME, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(JoinBarrier.runId(new OverAllState(Map.of(JoinBarrier.RUN_ID, "run-1")))).isEqualTo("run-1");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepRandomly() {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
+import com.alibaba.cloud.ai.graph.sse.StateDeltaEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -34,6 +35,7 @@ import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author yHong
@@ -59,14 +61,21 @@ public class ParallelController {
 		return engine.call(Map.of("inputText", text)).get().data();
 	}
 
+	/**
+	 * 每个事件只包含本次发生变化的 state key, full_snapshot=true 时第一个事件为完整 state
+	 */
 	@GetMapping(path = "/stream", produces = "text/event-stream")
-	public Flux<Map<String, Object>> analyzeStream(@RequestParam("text") String text) {
+	public Flux<StateDeltaEncoder.Delta> analyzeStream(@RequestParam("text") String text,
+			@RequestParam(value = "full_snapshot", defaultValue = "false") boolean fullSnapshot) {
 		RunnableConfig cfg = RunnableConfig.builder().streamMode(CompiledGraph.StreamMode.SNAPSHOTS).build();
-		return Flux.create(sink -> {
-            engine.fluxStream(Map.of("inputText", text), cfg).doOnNext(
-                    node -> sink.next(node.state().data())
-            ).doOnComplete(sink::complete).doOnError(sink::error).subscribe();
-        });
+		// 直接返回图的流, 客户端断开时取消会传递到图的执行
+		return Flux.defer(() -> {
+			StateDeltaEncoder encoder = new StateDeltaEncoder();
+			AtomicBoolean snapshotPending = new AtomicBoolean(fullSnapshot);
+			return engine.fluxStream(Map.of("inputText", text), cfg)
+				.map(node -> snapshotPending.getAndSet(false) ? encoder.snapshot(node.node(), node.state().data())
+						: encoder.encode(node.node(), node.state().data()));
+		});
 	}
 
 }
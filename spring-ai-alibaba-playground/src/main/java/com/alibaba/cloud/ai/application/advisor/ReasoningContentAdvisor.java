@@ -16,26 +16,40 @@
 
 package com.alibaba.cloud.ai.application.advisor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
-import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
-import org.springframework.ai.chat.client.advisor.api.BaseAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.util.StringUtils;
 
-import java.util.List;
-import java.util.Objects;
-
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  *
- * Incorporate DeepSeek-R1's reasoning content into the output
+ * Incorporate DeepSeek-R1's reasoning content into the output.
+ * In streaming mode the {@code <think>} markers are emitted once per stream, reasoning
+ * chunks are rewritten and answer chunks are passed through untouched.
  */
 
-public class ReasoningContentAdvisor implements BaseAdvisor {
+public class ReasoningContentAdvisor implements CallAdvisor, StreamAdvisor {
+
+	private static final String REASONING_CONTENT = "reasoningContent";
+
+	private static final String THINK_START = "<think>";
+
+	private static final String THINK_END = "</think>";
 
 	private final int order;
 
@@ -43,48 +57,148 @@ public class ReasoningContentAdvisor implements BaseAdvisor {
 		this.order = order != null ? order : 0;
 	}
 
+	@Override
+	public String getName() {
+
+		return this.getClass().getSimpleName();
+	}
+
 	@Override
 	public int getOrder() {
 
 		return this.order;
 	}
-	
+
 	@Override
-	public ChatClientRequest before(final ChatClientRequest chatClientRequest, final AdvisorChain advisorChain) {
-		return chatClientRequest;
+	public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+
+		ChatClientResponse chatClientResponse = callAdvisorChain.nextCall(chatClientRequest);
+
+		String reasoningContent = getReasoningContent(chatClientResponse.chatResponse());
+		if (Objects.isNull(reasoningContent)) {
+			return chatClientResponse;
+		}
+
+		String text = chatClientResponse.chatResponse().getResult().getOutput().getText();
+		return rewrite(chatClientResponse, THINK_START + reasoningContent + THINK_END + (text != null ? text : ""));
 	}
-	
+
 	@Override
-	public ChatClientResponse after(final ChatClientResponse chatClientResponse, final AdvisorChain advisorChain) {
-		
+	public Flux<ChatClientResponse> adviseStream(ChatClientRequest chatClientRequest, StreamAdvisorChain streamAdvisorChain) {
+
+		// one tracker per subscription, the advisor itself is shared across requests.
+		return Flux.defer(() -> {
+			ThinkPhaseTracker tracker = new ThinkPhaseTracker();
+			return streamAdvisorChain.nextStream(chatClientRequest)
+					.map(tracker::onChunk)
+					.concatWith(Mono.fromSupplier(tracker::onComplete));
+		});
+	}
+
+	private static String getReasoningContent(ChatResponse chatResponse) {
+
+		if (Objects.isNull(chatResponse) || Objects.isNull(chatResponse.getResult())) {
+			return null;
+		}
+
+		Object reasoningContent = chatResponse.getResult().getOutput().getMetadata().get(REASONING_CONTENT);
+		if (reasoningContent instanceof String content && StringUtils.hasText(content)) {
+			return content;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Replace the text of the first generation, the remaining generations are kept as is.
+	 */
+	private static ChatClientResponse rewrite(ChatClientResponse chatClientResponse, String text) {
+
 		ChatResponse resp = chatClientResponse.chatResponse();
+		List<Generation> generations = new ArrayList<>(resp.getResults());
+		Generation generation = generations.get(0);
+		AssistantMessage output = generation.getOutput();
 
-		if (Objects.isNull(resp)) {
-			return chatClientResponse;
+		generations.set(0, new Generation(
+				new AssistantMessage(text, output.getMetadata(), output.getToolCalls(), output.getMedia()),
+				generation.getMetadata()
+		));
+
+		return ChatClientResponse.builder()
+				.context(chatClientResponse.context())
+				.chatResponse(ChatResponse.builder().from(resp).generations(generations).build())
+				.build();
+	}
+
+	/**
+	 * Tracks the think/answer phase of a single stream.
+	 */
+	private static final class ThinkPhaseTracker {
+
+		private boolean thinking;
+
+		private ChatClientResponse last;
+
+		ChatClientResponse onChunk(ChatClientResponse chatClientResponse) {
+
+			this.last = chatClientResponse;
+
+			// chunks without a chat response (e.g. context only) carry no text, keep the phase.
+			ChatResponse chatResponse = chatClientResponse.chatResponse();
+			if (Objects.isNull(chatResponse)) {
+				return chatClientResponse;
+			}
+
+			String reasoningContent = getReasoningContent(chatResponse);
+			if (Objects.isNull(reasoningContent) && !this.thinking) {
+				return chatClientResponse;
+			}
+
+			String text = Objects.isNull(chatResponse.getResult()) ? null
+					: chatResponse.getResult().getOutput().getText();
+
+			if (Objects.isNull(reasoningContent)) {
+				if (!StringUtils.hasLength(text)) {
+					return chatClientResponse;
+				}
+
+				// first answer chunk, close the think block.
+				this.thinking = false;
+				return rewrite(chatClientResponse, THINK_END + text);
+			}
+
+			StringBuilder sb = new StringBuilder();
+			if (!this.thinking) {
+				this.thinking = true;
+				sb.append(THINK_START);
+			}
+			sb.append(reasoningContent);
+
+			if (StringUtils.hasLength(text)) {
+				this.thinking = false;
+				sb.append(THINK_END).append(text);
+			}
+
+			return rewrite(chatClientResponse, sb.toString());
 		}
 
-		// 注释，避免冗长的日志打印
-		// logger.debug("Advisor metadata output: {}", resp.getResults().get(0).getOutput().getMetadata());
-		String reasoningContent = String.valueOf(resp.getResults().get(0).getOutput().getMetadata().get("reasoningContent"));
-		// logger.debug("Advisor reasoning content: {}", reasoningContent);
-		if (StringUtils.hasText(reasoningContent)) {
-			List<Generation> thinkGenerations = resp.getResults().stream()
-					.map(generation -> {
-						AssistantMessage output = generation.getOutput();
-						AssistantMessage thinkAssistantMessage = new AssistantMessage(
-								String.format("<think>%s</think>", reasoningContent) + output.getText(),
-								output.getMetadata(),
-								output.getToolCalls(),
-								output.getMedia()
-						);
-						return new Generation(thinkAssistantMessage, generation.getMetadata());
-					}).toList();
-			
-			ChatResponse thinkChatResp = ChatResponse.builder().from(resp).generations(thinkGenerations).build();
-			return ChatClientResponse.builder().context(chatClientResponse.context()).chatResponse(thinkChatResp).build();
-			
+		ChatClientResponse onComplete() {
+
+			// thinking is only ever set after a chunk was seen, so last is never null here.
+			if (!this.thinking) {
+				return null;
+			}
+
+			this.thinking = false;
+			ChatResponse chatResponse = ChatResponse.builder()
+					.generations(List.of(new Generation(new AssistantMessage(THINK_END))))
+					.build();
+
+			return ChatClientResponse.builder()
+					.context(this.last.context())
+					.chatResponse(chatResponse)
+					.build();
 		}
-		
-		return chatClientResponse;
 	}
+
 }
@@ -16,6 +16,7 @@
 
 package com.alibaba.cloud.ai.application.config;
 
+import com.alibaba.cloud.ai.application.modulerag.core.IQSSearchEngine;
 import com.alibaba.cloud.ai.application.modulerag.preretrieval.query.expansion.MultiQueryExpander;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 
@@ -59,7 +60,8 @@ public class WebSearchConfiguration {
 
 	@Bean
 	public QueryExpander queryExpander(
-			@Qualifier("dashscopeChatModel") ChatModel chatModel
+			@Qualifier("dashscopeChatModel") ChatModel chatModel,
+			IQSSearchEngine searchEngine
 	) {
 
 		ChatClient chatClient = ChatClient.builder(chatModel)
@@ -72,6 +74,9 @@ public class WebSearchConfiguration {
 		return MultiQueryExpander.builder()
 				.chatClientBuilder(chatClient.mutate())
 				.numberOfQueries(2)
+				// 每生成一个查询就开始搜索, 与查询扩展并行
+				.streaming(true)
+				.queryListener(query -> searchEngine.prefetch(query.text()))
 				.build();
 	}
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Progress metrics of the markdown ingestion into the vector store.
+ */
+
+class IngestionMetrics {
+
+	private static final String PREFIX = "playground.rag.ingestion";
+
+	private final Counter filesEmbedded;
+
+	private final Counter filesSkipped;
+
+	private final Counter filesFailed;
+
+	private final Counter documentsEmbedded;
+
+	private final Counter retries;
+
+	private final Timer batchTimer;
+
+	IngestionMetrics(MeterRegistry registry) {
+		this.filesEmbedded = registry.counter(PREFIX + ".files", "status", "embedded");
+		this.filesSkipped = registry.counter(PREFIX + ".files", "status", "skipped");
+		this.filesFailed = registry.counter(PREFIX + ".files", "status", "failed");
+		this.documentsEmbedded = registry.counter(PREFIX + ".documents");
+		this.retries = registry.counter(PREFIX + ".retries");
+		this.batchTimer = Timer.builder(PREFIX + ".batch")
+				.description("Time to embed and store one batch of documents")
+				.register(registry);
+	}
+
+	void fileEmbedded() {
+		this.filesEmbedded.increment();
+	}
+
+	void fileSkipped() {
+		this.filesSkipped.increment();
+	}
+
+	void fileFailed() {
+		this.filesFailed.increment();
+	}
+
+	void documentsEmbedded(int count) {
+		this.documentsEmbedded.increment(count);
+	}
+
+	void retried() {
+		this.retries.increment();
+	}
+
+	void recordBatch(Runnable batch) {
+		this.batchTimer.record(batch);
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package com.alibaba.cloud.ai.application.config.rag;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
@@ -23,24 +25,35 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 
 @Configuration
+@EnableConfigurationProperties(VectorStoreIndexProperties.class)
 public class SimpleVectorStoreConfiguration {
 
 	@Value("${spring.ai.alibaba.playground.bailian.enable:false}")
 	private Boolean enable;
 
 	@Bean
-	CommandLineRunner ingestTermOfServiceToVectorStore(VectorStoreDelegate vectorStoreDelegate) {
+	CommandLineRunner ingestTermOfServiceToVectorStore(
+			VectorStoreDelegate vectorStoreDelegate,
+			VectorStoreIndexProperties indexProperties,
+			MeterRegistry meterRegistry,
+			@Qualifier("dashscopeEmbeddingModel") EmbeddingModel embeddingModel,
+			@Qualifier("applicationTaskExecutor") TaskExecutor applicationTaskExecutor
+	) {
 		return args -> {
 			// 百炼知识库和向量存储初始化
 			// 如果未启用百炼知识库，则默认用向量存储服务
 			if (!enable) {
 				String type = System.getenv("VECTOR_STORE_TYPE");
-				VectorStoreInitializer initializer = new VectorStoreInitializer();
-				initializer.init(vectorStoreDelegate.getVectorStore(type));
+				VectorStoreInitializer initializer = new VectorStoreInitializer(indexProperties, meterRegistry,
+						embeddingModel);
+				// 后台加载，不阻塞应用启动
+				initializer.initAsync(vectorStoreDelegate.getVectorStore(type), applicationTaskExecutor);
 			}
 		};
 	}
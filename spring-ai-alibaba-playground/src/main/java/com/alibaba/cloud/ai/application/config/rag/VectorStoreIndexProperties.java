@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Location and ingestion limits of the local vector store index.
+ */
+
+@ConfigurationProperties("spring.ai.alibaba.playground.rag")
+public class VectorStoreIndexProperties {
+
+	/**
+	 * Directory holding the index manifest and the SimpleVectorStore snapshot.
+	 */
+	private Path indexDir = Paths.get(System.getProperty("user.dir"), "rag", "index");
+
+	/**
+	 * Number of files embedded concurrently.
+	 */
+	private int parallelism = 4;
+
+	/**
+	 * Embedding requests per second, keep it below the DashScope QPS quota of the embedding model.
+	 */
+	private double permitsPerSecond = 10;
+
+	/**
+	 * Attempts per batch before the file is given up and retried on the next startup.
+	 */
+	private int maxAttempts = 3;
+
+	private Duration initialBackoff = Duration.ofMillis(500);
+
+	private Duration maxBackoff = Duration.ofSeconds(10);
+
+	public Path getIndexDir() {
+		return this.indexDir;
+	}
+
+	public void setIndexDir(Path indexDir) {
+		this.indexDir = indexDir;
+	}
+
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public double getPermitsPerSecond() {
+		return this.permitsPerSecond;
+	}
+
+	public void setPermitsPerSecond(double permitsPerSecond) {
+		this.permitsPerSecond = permitsPerSecond;
+	}
+
+	public int getMaxAttempts() {
+		return this.maxAttempts;
+	}
+
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public Duration getInitialBackoff() {
+		return this.initialBackoff;
+	}
+
+	public void setInitialBackoff(Duration initialBackoff) {
+		this.initialBackoff = initialBackoff;
+	}
+
+	public Duration getMaxBackoff() {
+		return this.maxBackoff;
+	}
+
+	public void setMaxBackoff(Duration maxBackoff) {
+		this.maxBackoff = maxBackoff;
+	}
+
+}
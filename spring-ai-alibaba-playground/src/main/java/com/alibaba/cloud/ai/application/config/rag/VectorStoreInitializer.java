@@ -16,57 +16,362 @@
 
 package com.alibaba.cloud.ai.application.config.rag;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.util.concurrent.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.reader.markdown.MarkdownDocumentReader;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
+ * Loads the markdown corpus into the vector store incrementally.
+ * A manifest of (file, SHA-256, splitter params) is kept next to the SimpleVectorStore snapshot,
+ * so only new or changed files are re-embedded on startup. Files are embedded concurrently,
+ * rate limited to the embedding model quota and retried with backoff.
+ * <p>
+ * A SimpleVectorStore restored with {@code load()} is backed by a plain HashMap, so it is never
+ * written while it serves searches: new files are embedded into a private staging store, merged
+ * with the previous snapshot on disk and swapped in with a single {@code load()} at the end.
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
 public class VectorStoreInitializer {
 
+	private static final int CHUNK_SIZE = 2000;
+
+	private static final int MIN_CHUNK_SIZE_CHARS = 1024;
+
+	private static final int MIN_CHUNK_LENGTH_TO_EMBED = 10;
+
+	private static final int MAX_NUM_CHUNKS = 10000;
+
+	private static final boolean KEEP_SEPARATOR = true;
+
+	private static final String SPLITTER_PARAMS = String.join(",",
+			String.valueOf(CHUNK_SIZE),
+			String.valueOf(MIN_CHUNK_SIZE_CHARS),
+			String.valueOf(MIN_CHUNK_LENGTH_TO_EMBED),
+			String.valueOf(MAX_NUM_CHUNKS),
+			String.valueOf(KEEP_SEPARATOR)
+	);
+
+	private static final int BATCH_SIZE = 25;
+
+	private static final String SNAPSHOT_FILE = "simple-vector-store.json";
+
 	private final Logger logger = LoggerFactory.getLogger(VectorStoreInitializer.class);
 
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Path indexDir;
+
+	private final VectorStoreIndexProperties properties;
+
+	private final IngestionMetrics metrics;
+
+	private final EmbeddingModel embeddingModel;
+
+	public VectorStoreInitializer(VectorStoreIndexProperties properties, MeterRegistry meterRegistry,
+			EmbeddingModel embeddingModel) {
+		this.properties = properties;
+		this.indexDir = properties.getIndexDir();
+		this.metrics = new IngestionMetrics(meterRegistry);
+		this.embeddingModel = embeddingModel;
+	}
+
+	/**
+	 * Run the ingestion in the background so the application can serve traffic meanwhile.
+	 */
+	public CompletableFuture<Void> initAsync(VectorStore vectorStore, TaskExecutor taskExecutor) {
+
+		return CompletableFuture.runAsync(() -> {
+			try {
+				init(vectorStore);
+			}
+			catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, taskExecutor).whenComplete((ignored, ex) -> {
+			if (ex != null) {
+				logger.error("Load markdown documents into vector store failed", ex);
+			}
+		});
+	}
+
 	public void init(VectorStore vectorStore) throws Exception {
-		List<MarkdownDocumentReader> markdownDocumentReaderList = loadMarkdownDocuments();
+		List<MarkdownSource> markdownSources = loadMarkdownSources();
 
-		int size = 0;
-		if (markdownDocumentReaderList.isEmpty()) {
+		if (markdownSources.isEmpty()) {
 			logger.warn("No markdown documents found in the directory.");
 			return;
 		}
 
+		Path manifestPath = indexDir.resolve(vectorStore.getName() + "-manifest.json");
+		Path snapshotPath = indexDir.resolve(SNAPSHOT_FILE);
+		boolean isSimpleVectorStore = vectorStore instanceof SimpleVectorStore;
+
+		IndexManifest manifest = loadManifest(manifestPath);
+		boolean restored = false;
+		if (isSimpleVectorStore && Files.exists(snapshotPath) && !manifest.files().isEmpty()) {
+			// swaps the store map in one step, searches see the previous index right away.
+			((SimpleVectorStore) vectorStore).load(snapshotPath.toFile());
+			restored = true;
+		}
+		else if (isSimpleVectorStore) {
+			// nothing was restored, every file has to be embedded again.
+			manifest = IndexManifest.empty();
+		}
+
+		// the live SimpleVectorStore is only replaced, never written concurrently.
+		VectorStore target = isSimpleVectorStore ? SimpleVectorStore.builder(embeddingModel).build() : vectorStore;
+		Set<String> staleIds = new HashSet<>();
+
 		logger.debug("Start to load markdown documents into vector store......");
-		for (MarkdownDocumentReader markdownDocumentReader : markdownDocumentReaderList) {
-			List<Document> documents = new TokenTextSplitter(2000, 1024, 10, 10000, true).transform(markdownDocumentReader.get());
-			size += documents.size();
-
-			// 拆分 documents 列表为最大 25 个元素的子列表
-			for (int i = 0; i < documents.size(); i += 25) {
-				int end = Math.min(i + 25, documents.size());
-				List<Document> subList = documents.subList(i, end);
-				vectorStore.add(subList);
+		Map<String, IndexedFile> indexedFiles = new ConcurrentHashMap<>();
+		Set<String> seen = new HashSet<>();
+		List<CompletableFuture<Void>> tasks = new ArrayList<>();
+		AtomicInteger size = new AtomicInteger();
+		int skipped = 0;
+		boolean changed = false;
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("vector-store-ingestion-");
+		executor.setCorePoolSize(properties.getParallelism());
+		executor.setMaxPoolSize(properties.getParallelism());
+		executor.initialize();
+		RateLimiter rateLimiter = RateLimiter.create(properties.getPermitsPerSecond());
+
+		try {
+			for (MarkdownSource source : markdownSources) {
+				seen.add(source.location());
+				String sha256 = sha256(source.path());
+				IndexedFile previous = manifest.files().get(source.location());
+
+				if (previous != null && Objects.equals(previous.sha256(), sha256)) {
+					indexedFiles.put(source.location(), previous);
+					metrics.fileSkipped();
+					skipped++;
+					continue;
+				}
+
+				if (previous != null) {
+					removeDocuments(vectorStore, isSimpleVectorStore, staleIds, previous.documentIds());
+				}
+
+				changed = true;
+				tasks.add(CompletableFuture.runAsync(() -> {
+					List<String> documentIds = ingest(target, source, rateLimiter);
+					if (documentIds != null) {
+						size.addAndGet(documentIds.size());
+						indexedFiles.put(source.location(), new IndexedFile(sha256, documentIds));
+					}
+				}, executor));
 			}
+
+			CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
 		}
-		logger.debug("Load markdown documents into vector store successfully. Load {} documents.", size);
+		finally {
+			executor.shutdown();
+		}
+
+		// files removed from the corpus since the last run.
+		for (Map.Entry<String, IndexedFile> entry : manifest.files().entrySet()) {
+			if (!seen.contains(entry.getKey())) {
+				removeDocuments(vectorStore, isSimpleVectorStore, staleIds, entry.getValue().documentIds());
+				changed = true;
+			}
+		}
+
+		if (changed) {
+			Files.createDirectories(indexDir);
+			if (isSimpleVectorStore) {
+				writeSnapshot(snapshotPath, restored, (SimpleVectorStore) target, staleIds);
+				((SimpleVectorStore) vectorStore).load(snapshotPath.toFile());
+			}
+			// write the manifest last, a crash before this point only causes a re-embed next time.
+			writeManifest(manifestPath, new IndexManifest(SPLITTER_PARAMS, new HashMap<>(indexedFiles)));
+		}
+
+		logger.debug("Load markdown documents into vector store successfully. Load {} documents, {} files unchanged.",
+				size.get(), skipped);
 	}
 
-	private List<MarkdownDocumentReader> loadMarkdownDocuments() throws IOException, URISyntaxException {
-		List<MarkdownDocumentReader> readers;
+	/**
+	 * Read, split and embed one file in batches.
+	 * @return the ids of the stored documents, or {@code null} when the file failed and has to be
+	 * picked up again on the next run.
+	 */
+	private List<String> ingest(VectorStore vectorStore, MarkdownSource source, RateLimiter rateLimiter) {
+
+		List<Document> documents = new TokenTextSplitter(CHUNK_SIZE, MIN_CHUNK_SIZE_CHARS,
+				MIN_CHUNK_LENGTH_TO_EMBED, MAX_NUM_CHUNKS, KEEP_SEPARATOR)
+				.transform(new MarkdownDocumentReader(source.location()).get());
+
+		List<String> documentIds = documents.stream().map(Document::getId).toList();
+
+		// 拆分 documents 列表为最大 25 个元素的子列表
+		for (int i = 0; i < documents.size(); i += BATCH_SIZE) {
+			int end = Math.min(i + BATCH_SIZE, documents.size());
+			List<Document> subList = documents.subList(i, end);
+
+			try {
+				addWithRetry(vectorStore, subList, rateLimiter);
+			}
+			catch (RuntimeException e) {
+				logger.error("Load markdown document {} into vector store failed: {}", source.location(), e.getMessage());
+				metrics.fileFailed();
+				if (i > 0) {
+					vectorStore.delete(documentIds.subList(0, i));
+				}
+				return null;
+			}
+			metrics.documentsEmbedded(subList.size());
+		}
+
+		metrics.fileEmbedded();
+		return documentIds;
+	}
+
+	private void addWithRetry(VectorStore vectorStore, List<Document> batch, RateLimiter rateLimiter) {
+
+		long backoff = properties.getInitialBackoff().toMillis();
+		for (int attempt = 1; ; attempt++) {
+			rateLimiter.acquire();
+			try {
+				metrics.recordBatch(() -> vectorStore.add(batch));
+				return;
+			}
+			catch (RuntimeException e) {
+				if (attempt >= properties.getMaxAttempts()) {
+					throw e;
+				}
+				metrics.retried();
+				logger.warn("Embedding batch failed (attempt {}), retry in {} ms: {}", attempt, backoff, e.getMessage());
+				try {
+					Thread.sleep(backoff);
+				}
+				catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+				backoff = Math.min(backoff * 2, properties.getMaxBackoff().toMillis());
+			}
+		}
+	}
+
+	private static void removeDocuments(VectorStore vectorStore, boolean isSimpleVectorStore, Set<String> staleIds,
+			List<String> documentIds) {
+
+		if (isSimpleVectorStore) {
+			// dropped from the merged snapshot instead of mutating the live store.
+			staleIds.addAll(documentIds);
+		}
+		else {
+			vectorStore.delete(documentIds);
+		}
+	}
+
+	/**
+	 * Merge the previous snapshot, minus the stale documents, with the freshly embedded staging
+	 * store and atomically replace the snapshot file. Both files use the SimpleVectorStore
+	 * format, so entries keep their embeddings and nothing is embedded twice.
+	 */
+	private void writeSnapshot(Path snapshotPath, boolean restored, SimpleVectorStore staging,
+			Set<String> staleIds) throws IOException {
+
+		ObjectNode merged = restored
+				? (ObjectNode) objectMapper.readTree(snapshotPath.toFile())
+				: objectMapper.createObjectNode();
+		merged.remove(staleIds);
+
+		File stagingFile = Files.createTempFile(indexDir, "staging", ".json").toFile();
+		try {
+			staging.save(stagingFile);
+			merged.setAll((ObjectNode) objectMapper.readTree(stagingFile));
+		}
+		finally {
+			Files.deleteIfExists(stagingFile.toPath());
+		}
+
+		File tmp = Files.createTempFile(indexDir, "snapshot", ".tmp").toFile();
+		objectMapper.writeValue(tmp, merged);
+		Files.move(tmp.toPath(), snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private IndexManifest loadManifest(Path manifestPath) {
+
+		if (!Files.exists(manifestPath)) {
+			return IndexManifest.empty();
+		}
+
+		try {
+			IndexManifest manifest = objectMapper.readValue(manifestPath.toFile(), IndexManifest.class);
+			if (!Objects.equals(SPLITTER_PARAMS, manifest.splitterParams()) || manifest.files() == null) {
+				logger.debug("Splitter params changed, rebuild the vector store index.");
+				return IndexManifest.empty();
+			}
+			return manifest;
+		}
+		catch (IOException e) {
+			logger.warn("Read vector store manifest failed, rebuild the index: {}", e.getMessage());
+			return IndexManifest.empty();
+		}
+	}
+
+	private void writeManifest(Path manifestPath, IndexManifest manifest) throws IOException {
+
+		File tmp = Files.createTempFile(indexDir, "manifest", ".tmp").toFile();
+		objectMapper.writeValue(tmp, manifest);
+		Files.move(tmp.toPath(), manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static String sha256(Path path) throws IOException {
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(Files.readAllBytes(path)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private List<MarkdownSource> loadMarkdownSources() throws IOException, URISyntaxException {
+		List<MarkdownSource> sources;
 		
 		// 首先检查jar包当前运行目录是否存在markdown文件
 		Path currentDirPath = Paths.get(System.getProperty("user.dir"), "rag", "markdown");
@@ -81,13 +386,13 @@ public class VectorStoreInitializer {
 				
 				if (!markdownFiles.isEmpty()) {
 					logger.debug("Loading {} markdown files from current directory", markdownFiles.size());
-					readers = markdownFiles.stream()
+					sources = markdownFiles.stream()
 							.map(path -> {
 								String filePath = path.toAbsolutePath().toString();
-								return new MarkdownDocumentReader("file:" + filePath);
+								return new MarkdownSource("file:" + filePath, path);
 							})
 							.collect(Collectors.toList());
-					return readers;
+					return sources;
 				} else {
 					logger.debug("No markdown files found in current directory, falling back to resources");
 				}
@@ -101,17 +406,33 @@ public class VectorStoreInitializer {
 		logger.debug("Loading markdown files from resources directory: {}", markdownDir);
 
 		try (Stream<Path> paths = Files.walk(markdownDir)) {
-			readers = paths.filter(Files::isRegularFile)
+			sources = paths.filter(Files::isRegularFile)
 					.filter(path -> path.toString().endsWith(".md"))
 					.map(path -> {
 						String fileName = path.getFileName().toString();
 						String classpathPath = "classpath:rag/markdown/" + fileName;
-						return new MarkdownDocumentReader(classpathPath);
+						return new MarkdownSource(classpathPath, path);
 					})
 					.collect(Collectors.toList());
 		}
 
-		return readers;
+		return sources;
+	}
+
+	/**
+	 * A markdown file, identified by the location handed to {@link MarkdownDocumentReader}.
+	 */
+	private record MarkdownSource(String location, Path path) {
+	}
+
+	record IndexedFile(String sha256, List<String> documentIds) {
+	}
+
+	record IndexManifest(String splitterParams, Map<String, IndexedFile> files) {
+
+		static IndexManifest empty() {
+			return new IndexManifest(SPLITTER_PARAMS, Map.of());
+		}
 	}
 
 }
@@ -20,9 +20,13 @@ import com.alibaba.cloud.ai.application.entity.result.Result;
 import com.alibaba.cloud.ai.application.service.SAAAudioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 
@@ -38,6 +42,8 @@ import java.io.IOException;
 @RequestMapping("/api/v1/")
 public class SAAAudioController {
 
+	private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+
 	private final SAAAudioService audioService;
 
 	public SAAAudioController(SAAAudioService audioService) {
@@ -83,4 +89,19 @@ public class SAAAudioController {
 		// return Result.success(audioData);
 	}
 
+	/**
+	 * used to stream synthesized speech, audio chunks are written with chunked transfer as they arrive
+	 */
+	@GetMapping("/text2audio/stream")
+	@Operation(summary = "DashScope Streaming Speech Synthesis")
+	public ResponseEntity<StreamingResponseBody> textToAudioStream(
+			@Validated @RequestParam("prompt") String prompt
+	) {
+
+		return ResponseEntity.ok()
+				.contentType(AUDIO_MPEG)
+				.header(HttpHeaders.CACHE_CONTROL, "no-store")
+				.body(outputStream -> audioService.text2audio(prompt, outputStream));
+	}
+
 }
@@ -31,10 +31,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
@@ -71,14 +67,8 @@ public class SAAChatController {
 			@RequestHeader(value = "chatId", required = false, defaultValue = "spring-ai-alibaba-playground-chat") String chatId
 	) {
 
-		Set<Map<String, String>> dashScope = baseService.getDashScope();
-		List<String> modelName = dashScope.stream()
-				.flatMap(map -> map.keySet().stream().map(map::get))
-				.distinct()
-				.toList();
-
 		if (StringUtils.hasText(model)) {
-			if (!modelName.contains(model)) {
+			if (!baseService.isSupportedModel(model)) {
 				return Flux.just("Input model not support.");
 			}
 		}
@@ -98,14 +88,8 @@ public class SAAChatController {
 			@RequestHeader(value = "chatId", required = false, defaultValue = "spring-ai-alibaba-playground-deepthink-chat") String chatId
 	) {
 
-		Set<Map<String, String>> dashScope = baseService.getDashScope();
-		List<String> modelName = dashScope.stream()
-				.flatMap(map -> map.keySet().stream().map(map::get))
-				.distinct()
-				.toList();
-
 		if (StringUtils.hasText(model)) {
-			if (!modelName.contains(model)) {
+			if (!baseService.isSupportedModel(model)) {
 				return Flux.just("Input model not support.");
 			}
 		}
@@ -16,7 +16,6 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,11 +23,12 @@ import java.util.Map;
 import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
 import com.alibaba.cloud.ai.application.entity.result.Result;
 import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
-import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.application.mcp.McpServerContainer;
 import com.alibaba.cloud.ai.application.service.SAAMcpService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import reactor.core.publisher.Flux;
 
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
@@ -65,6 +65,20 @@ public class SAAMcpController {
 		return Result.success(mcpService.chat(prompt));
 	}
 
+	/**
+	 * Runs the tools like {@code /inner/mcp} and streams the final answer.
+	 */
+	@GetMapping("/inner/mcp/stream")
+	@Operation(summary = "DashScope MCP Chat Stream")
+	public Flux<String> mcpChatStream(
+			HttpServletResponse response,
+			@Validated @RequestParam("prompt") String prompt
+	) {
+
+		response.setCharacterEncoding("UTF-8");
+		return mcpService.chatStream(prompt);
+	}
+
 	@GetMapping("/mcp-list")
 	@Operation(summary = "MCP List")
 	public Result<List<McpServer>> mcpList() {
@@ -80,6 +94,27 @@ public class SAAMcpController {
 			@RequestParam(value = "envs", required = false) String envs
 	) {
 
+		return Result.success(mcpService.run(id, parseEnvs(envs), prompt));
+	}
+
+	/**
+	 * Runs the tools like {@code /mcp-run} and streams the final answer.
+	 */
+	@PostMapping("/mcp-run/stream")
+	@Operation(summary = "MCP Run Stream")
+	public Flux<String> mcpRunStream(
+			HttpServletResponse response,
+			@Validated @RequestParam("id") String id,
+			@Validated @RequestParam("prompt") String prompt,
+			@RequestParam(value = "envs", required = false) String envs
+	) {
+
+		response.setCharacterEncoding("UTF-8");
+		return mcpService.runStream(id, parseEnvs(envs), prompt);
+	}
+
+	private static Map<String, String> parseEnvs(String envs) {
+
 		Map<String, String> env = new HashMap<>();
 		if (StringUtils.hasText(envs)) {
 			for (String entry : envs.split(",")) {
@@ -89,13 +124,7 @@ public class SAAMcpController {
 				}
 			}
 		}
-
-		try {
-			return Result.success(mcpService.run(id, env, prompt));
-		}
-		catch (IOException e) {
-			throw new SAAAppException(e.getMessage());
-		}
+		return env;
 	}
 }
 
@@ -16,7 +16,10 @@
 
 package com.alibaba.cloud.ai.application.entity.tools;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author yuluo
@@ -66,14 +69,118 @@ public class ToolCallResp {
 	private String toolInput;
 
 	/**
-	 * 工具执行耗时
+	 * 工具执行耗时 (ms), 本轮所有工具调用的总耗时
 	 */
 	private Long toolCostTime;
+
+	/**
+	 * LLM 规划工具调用的耗时 (ms)
+	 */
+	private Long llmCostTime;
+
+	/**
+	 * 本轮每个工具调用的耗时明细
+	 */
+	private List<ToolTiming> toolTimings = new ArrayList<>();
+
 	/**
 	 * Tool 记录tool返回的中间结果
 	 */
 	private String toolResponse;
 
+	public static class ToolTiming {
+
+		/**
+		 * 工具所属的 MCP Server
+		 */
+		private String serverName;
+
+		private String toolName;
+
+		private String toolParameters;
+
+		private ToolState status;
+
+		/**
+		 * 工具执行耗时 (ms)
+		 */
+		private Long costTime;
+
+		private String errorMessage;
+
+		public ToolTiming() {
+		}
+
+		public ToolTiming(String serverName, String toolName, String toolParameters,
+				ToolState status, Long costTime, String errorMessage) {
+			this.serverName = serverName;
+			this.toolName = toolName;
+			this.toolParameters = toolParameters;
+			this.status = status;
+			this.costTime = costTime;
+			this.errorMessage = errorMessage;
+		}
+
+		public String getServerName() {
+			return serverName;
+		}
+
+		public void setServerName(String serverName) {
+			this.serverName = serverName;
+		}
+
+		public String getToolName() {
+			return toolName;
+		}
+
+		public void setToolName(String toolName) {
+			this.toolName = toolName;
+		}
+
+		public String getToolParameters() {
+			return toolParameters;
+		}
+
+		public void setToolParameters(String toolParameters) {
+			this.toolParameters = toolParameters;
+		}
+
+		public ToolState getStatus() {
+			return status;
+		}
+
+		public void setStatus(ToolState status) {
+			this.status = status;
+		}
+
+		public Long getCostTime() {
+			return costTime;
+		}
+
+		public void setCostTime(Long costTime) {
+			this.costTime = costTime;
+		}
+
+		public String getErrorMessage() {
+			return errorMessage;
+		}
+
+		public void setErrorMessage(String errorMessage) {
+			this.errorMessage = errorMessage;
+		}
+
+		@Override
+		public String toString() {
+			return "ToolTiming{" +
+					"serverName='" + serverName + '\'' +
+					", toolName='" + toolName + '\'' +
+					", status=" + status +
+					", costTime=" + costTime +
+					", errorMessage='" + errorMessage + '\'' +
+					'}';
+		}
+	}
+
 	public enum ToolState {
 		/**
 		 * 工具执行成功
@@ -165,6 +272,22 @@ public class ToolCallResp {
 		this.toolCostTime = toolCostTime;
 	}
 
+	public Long getLlmCostTime() {
+		return llmCostTime;
+	}
+
+	public void setLlmCostTime(Long llmCostTime) {
+		this.llmCostTime = llmCostTime;
+	}
+
+	public List<ToolTiming> getToolTimings() {
+		return toolTimings;
+	}
+
+	public void setToolTimings(List<ToolTiming> toolTimings) {
+		this.toolTimings = toolTimings;
+	}
+
 	public String getToolResponse() {
 		return toolResponse;
 	}
@@ -185,6 +308,8 @@ public class ToolCallResp {
 				", errorMessage='" + errorMessage + '\'' +
 				", toolInput='" + toolInput + '\'' +
 				", toolCostTime=" + toolCostTime +
+				", llmCostTime=" + llmCostTime +
+				", toolTimings=" + toolTimings +
 				", toolResponse='" + toolResponse + '\'' +
 				'}';
 	}
@@ -213,9 +338,7 @@ public class ToolCallResp {
 		res.setToolResult(toolResult);
 		res.setToolEndTime(LocalDateTime.now());
 		res.setStatus(status);
-		res.setToolCostTime(
-				(long) (res.getToolEndTime().getNano() - toolStartTime.getNano())
-		);
+		res.setToolCostTime(Duration.between(toolStartTime, res.getToolEndTime()).toMillis());
 
 		return res;
 	}
@@ -19,31 +19,81 @@ package com.alibaba.cloud.ai.application.mcp;
 import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+/**
+ * Copy-on-write registry of MCP servers. Readers get an immutable, versioned snapshot indexed
+ * by id and by server name, writers replace the whole snapshot. Readers which derive their
+ * own state from the servers can keep the snapshot version and rebuild it only when the
+ * version changes.
+ */
 public class McpServerContainer {
 
-	private static final List<McpServer> mcpServerContainer = new ArrayList<>();
+	private static volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	public static Snapshot snapshot() {
+		return snapshot;
+	}
 
 	public static List<McpServer> getAllServers() {
-		return new ArrayList<>(mcpServerContainer);
+		return snapshot.servers();
 	}
 
 	public static Optional<McpServer> getServerById(String id) {
 
-		return mcpServerContainer.stream()
-				.filter(server -> server.getId().equals(id))
-				.findFirst();
+		return Optional.ofNullable(snapshot.byId().get(id));
+	}
+
+	public static Optional<McpServer> getServerByName(String name) {
+
+		return Optional.ofNullable(snapshot.byName().get(name));
+	}
+
+	public static synchronized void addServer(McpServer server) {
+
+		List<McpServer> servers = new ArrayList<>(snapshot.servers());
+		servers.add(server);
+		snapshot = Snapshot.of(snapshot.version() + 1, servers);
 	}
 
-	public static void addServer(McpServer server) {
-		mcpServerContainer.add(server);
+	public static synchronized boolean removeServerById(String id) {
+
+		List<McpServer> servers = new ArrayList<>(snapshot.servers());
+		if (!servers.removeIf(server -> Objects.equals(server.getId(), id))) {
+			return false;
+		}
+
+		snapshot = Snapshot.of(snapshot.version() + 1, servers);
+		return true;
 	}
 
-	public static boolean removeServerById(String id) {
+	/**
+	 * An immutable view of the registered servers.
+	 */
+	public record Snapshot(long version, List<McpServer> servers, Map<String, McpServer> byId,
+			Map<String, McpServer> byName) {
+
+		static final Snapshot EMPTY = new Snapshot(0, List.of(), Map.of(), Map.of());
+
+		static Snapshot of(long version, List<McpServer> servers) {
+
+			Map<String, McpServer> byId = new HashMap<>();
+			Map<String, McpServer> byName = new HashMap<>();
+			for (McpServer server : servers) {
+				if (Objects.nonNull(server.getId())) {
+					byId.put(server.getId(), server);
+				}
+				if (Objects.nonNull(server.getName())) {
+					byName.putIfAbsent(server.getName(), server);
+				}
+			}
 
-		return mcpServerContainer.removeIf(server -> server.getId().equals(id));
+			return new Snapshot(version, List.copyOf(servers), Map.copyOf(byId), Map.copyOf(byName));
+		}
 	}
 
 }
@@ -126,25 +126,27 @@ public final class McpServerUtils {
 		McpServerConfig mcpServerConfig = McpServerUtils.getMcpServerConfig();
 		Map<String, String> mcpServerDescMap = initMcpServerDescMap();
 
-		mcpServerConfig.getMcpServers().forEach((key, parameters) -> {
+		// 按照 mcp server name 聚合 mcp server tools, 只遍历一次 tool callbacks
+		Map<String, List<McpServer.Tools>> toolsByServer = new HashMap<>();
+		for (ToolCallback toolCallback : toolCallbackProvider.getToolCallbacks()) {
 
-			List<McpServer.Tools> toolsList = new ArrayList<>();
-			for (ToolCallback toolCallback : toolCallbackProvider.getToolCallbacks()) {
+			// todo: 拿不到 mcp client, 先用包装器拿吧
+			SyncMcpToolCallback mcpToolCallback = (SyncMcpToolCallback) toolCallback;
+			SyncMcpToolCallbackWrapper syncMcpToolCallbackWrapper = new SyncMcpToolCallbackWrapper(mcpToolCallback);
+			String currentMcpServerName = syncMcpToolCallbackWrapper.getMcpClient().getServerInfo().name();
 
-				// todo: 拿不到 mcp client, 先用包装器拿吧
-				SyncMcpToolCallback mcpToolCallback = (SyncMcpToolCallback) toolCallback;
-				SyncMcpToolCallbackWrapper syncMcpToolCallbackWrapper = new SyncMcpToolCallbackWrapper(mcpToolCallback);
-				String currentMcpServerName = syncMcpToolCallbackWrapper.getMcpClient().getServerInfo().name();
+			McpServer.Tools tool = new McpServer.Tools();
+			tool.setDesc(toolCallback.getToolDefinition().description());
+			tool.setName(toolCallback.getToolDefinition().name());
+			tool.setParams(toolCallback.getToolDefinition().inputSchema());
 
-				// 按照 mcp server name 聚合 mcp server tools
-				if (Objects.equals(key, currentMcpServerName)) {
-					McpServer.Tools tool = new McpServer.Tools();
-					tool.setDesc(toolCallback.getToolDefinition().description());
-					tool.setName(toolCallback.getToolDefinition().name());
-					tool.setParams(toolCallback.getToolDefinition().inputSchema());
+			toolsByServer.computeIfAbsent(currentMcpServerName, name -> new ArrayList<>()).add(tool);
+		}
 
-					toolsList.add(tool);
-				}
+		mcpServerConfig.getMcpServers().forEach((key, parameters) -> {
+			// 已注册的 server 不重复添加, 保持 id 不变
+			if (McpServerContainer.getServerByName(key).isPresent()) {
+				return;
 			}
 
 			McpServerContainer.addServer(McpServer.builder()
@@ -152,7 +154,7 @@ public final class McpServerUtils {
 					.name(key)
 					.env(parameters.env())
 					.desc(mcpServerDescMap.get(key))
-					.toolList(toolsList)
+					.toolList(toolsByServer.getOrDefault(key, new ArrayList<>()))
 					.build()
 			);
 		});
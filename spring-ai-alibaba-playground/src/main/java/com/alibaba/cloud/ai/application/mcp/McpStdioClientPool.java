@@ -0,0 +1,453 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.mcp.SyncMcpToolCallbackProvider;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pool of initialized stdio MCP clients keyed by (server name, env hash).
+ * Repeated runs with the same server and env reuse the running process instead of spawning a new one,
+ * users with different env never share a process.
+ * <p>
+ * At most {@code max-size} processes run at once. When the pool is full the least recently used
+ * idle client is closed, and when every client is leased the acquire is rejected.
+ */
+
+@Component
+public class McpStdioClientPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(McpStdioClientPool.class);
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+	private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+	// one spawn in flight per key, concurrent callers for the same key wait on it.
+	private final Map<String, CompletableFuture<Void>> spawning = new ConcurrentHashMap<>();
+
+	// spawned and not yet closed clients, including evicted ones still leased.
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "mcp-client-pool-evictor");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final BiFunction<String, ServerParameters, McpSyncClient> clientFactory;
+
+	private final int maxSize;
+
+	private final Duration idleTimeout;
+
+	private final Timer spawnTimer;
+
+	private final Timer reuseTimer;
+
+	@Autowired
+	public McpStdioClientPool(
+			MeterRegistry meterRegistry,
+			@Value("${spring.ai.alibaba.playground.mcp.pool.max-size:8}") int maxSize,
+			@Value("${spring.ai.alibaba.playground.mcp.pool.idle-timeout:5m}") Duration idleTimeout
+	) {
+
+		this(meterRegistry, maxSize, idleTimeout, McpStdioClientPool::startClient);
+	}
+
+	McpStdioClientPool(
+			MeterRegistry meterRegistry,
+			int maxSize,
+			Duration idleTimeout,
+			BiFunction<String, ServerParameters, McpSyncClient> clientFactory
+	) {
+
+		this.clientFactory = clientFactory;
+		this.maxSize = maxSize;
+		this.idleTimeout = idleTimeout;
+		this.spawnTimer = acquireTimer(meterRegistry, "spawn");
+		this.reuseTimer = acquireTimer(meterRegistry, "reuse");
+
+		long period = Math.max(1, idleTimeout.toSeconds() / 2);
+		this.evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Borrow a healthy client for the given server, spawning it when there is none.
+	 * The returned lease must be closed after use.
+	 * @throws SAAAppException when the pool is full and every client is in use
+	 */
+	public Lease acquire(String serverName, ServerParameters parameters) {
+
+		String key = serverName + "@" + envHash(parameters.getEnv());
+		long start = System.nanoTime();
+
+		while (true) {
+			PooledClient pooled = clients.get(key);
+			if (pooled != null) {
+				// lease before the health check, so eviction can not close the client under us.
+				if (!pooled.tryLease()) {
+					// retired between the lookup and the lease.
+					clients.remove(key, pooled);
+					continue;
+				}
+				if (pooled.isHealthy()) {
+					reuseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+					return new Lease(pooled);
+				}
+
+				logger.warn("MCP client {} failed health check, respawn it.", serverName);
+				evict(key, pooled);
+				release(key, pooled);
+				continue;
+			}
+
+			CompletableFuture<Void> spawn = new CompletableFuture<>();
+			CompletableFuture<Void> inFlight = spawning.putIfAbsent(key, spawn);
+			if (inFlight != null) {
+				awaitSpawn(inFlight);
+				continue;
+			}
+
+			try {
+				if (clients.containsKey(key)) {
+					continue;
+				}
+				pooled = spawn(key, serverName, parameters);
+				pooled.tryLease();
+				clients.put(key, pooled);
+				spawnTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				return new Lease(pooled);
+			}
+			catch (RuntimeException e) {
+				spawn.completeExceptionally(e);
+				throw e;
+			}
+			finally {
+				spawning.remove(key, spawn);
+				spawn.complete(null);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+
+		evictor.shutdownNow();
+		clients.forEach((key, pooled) -> {
+			clients.remove(key, pooled);
+			if (pooled.forceRetire()) {
+				close(key, pooled);
+			}
+		});
+	}
+
+	void evictIdle() {
+
+		long deadline = System.nanoTime() - idleTimeout.toNanos();
+		clients.forEach((key, pooled) -> {
+			if (pooled.lastUsed - deadline < 0 && pooled.tryRetire()) {
+				logger.debug("Close idle MCP client: {}", key);
+				clients.remove(key, pooled);
+				close(key, pooled);
+			}
+		});
+	}
+
+	int size() {
+		return size.get();
+	}
+
+	private PooledClient spawn(String key, String serverName, ServerParameters parameters) {
+
+		reserveSlot();
+		McpSyncClient client;
+		try {
+			client = clientFactory.apply(serverName, parameters);
+		}
+		catch (RuntimeException e) {
+			size.decrementAndGet();
+			throw e;
+		}
+
+		try {
+			ToolCallback[] toolCallbacks = new SyncMcpToolCallbackProvider(client).getToolCallbacks();
+			return new PooledClient(key, client, toolCallbacks);
+		}
+		catch (RuntimeException e) {
+			size.decrementAndGet();
+			client.close();
+			throw new SAAAppException("List tools of MCP server " + serverName + " failed, " + e.getMessage());
+		}
+	}
+
+	private static McpSyncClient startClient(String serverName, ServerParameters parameters) {
+
+		logger.debug("Spawn MCP stdio client for server: {}", serverName);
+		McpSyncClient client = McpClient.sync(new StdioClientTransport(parameters))
+				.requestTimeout(REQUEST_TIMEOUT)
+				.build();
+
+		try {
+			client.initialize();
+		}
+		catch (RuntimeException e) {
+			client.close();
+			throw new SAAAppException("Start MCP server " + serverName + " failed, " + e.getMessage());
+		}
+		return client;
+	}
+
+	/**
+	 * Take a slot for a new process, closing the least recently used idle client when the
+	 * pool is full.
+	 */
+	private void reserveSlot() {
+
+		while (true) {
+			int current = size.get();
+			if (current < maxSize) {
+				if (size.compareAndSet(current, current + 1)) {
+					return;
+				}
+				continue;
+			}
+			if (!evictLeastRecentlyUsed()) {
+				throw new SAAAppException("MCP client pool is full (" + maxSize + ") and all clients are in use, try again later.");
+			}
+		}
+	}
+
+	private boolean evictLeastRecentlyUsed() {
+
+		while (true) {
+			Map.Entry<String, PooledClient> candidate = clients.entrySet().stream()
+					.filter(entry -> entry.getValue().isIdle())
+					.min((a, b) -> Long.compare(a.getValue().lastUsed, b.getValue().lastUsed))
+					.orElse(null);
+			if (candidate == null) {
+				return false;
+			}
+			// loses against a concurrent lease, pick again.
+			if (candidate.getValue().tryRetire()) {
+				clients.remove(candidate.getKey(), candidate.getValue());
+				close(candidate.getKey(), candidate.getValue());
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Take a client out of the pool, it is closed once the last lease is returned.
+	 */
+	private void evict(String key, PooledClient pooled) {
+
+		clients.remove(key, pooled);
+		pooled.evicted = true;
+		if (pooled.tryRetire()) {
+			close(key, pooled);
+		}
+	}
+
+	private void release(String key, PooledClient pooled) {
+
+		pooled.touch();
+		if (pooled.leases.decrementAndGet() == 0 && pooled.evicted && pooled.tryRetire()) {
+			close(key, pooled);
+		}
+	}
+
+	private void close(String key, PooledClient pooled) {
+
+		size.decrementAndGet();
+		try {
+			pooled.client.closeGracefully();
+		}
+		catch (RuntimeException e) {
+			logger.debug("Close MCP client {} failed: {}", key, e.getMessage());
+		}
+	}
+
+	private static void awaitSpawn(CompletableFuture<Void> inFlight) {
+
+		try {
+			inFlight.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private static String envHash(Map<String, String> env) {
+
+		if (Objects.isNull(env) || env.isEmpty()) {
+			return "default";
+		}
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			// sorted, so the same env always hashes to the same key.
+			new TreeMap<>(env).forEach((k, v) -> {
+				digest.update(k.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '=');
+				digest.update(String.valueOf(v).getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+			});
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Timer acquireTimer(MeterRegistry meterRegistry, String result) {
+
+		return Timer.builder("playground.mcp.client.acquire")
+				.description("Time to get a ready MCP stdio client")
+				.tag("result", result)
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+	}
+
+	private static final class PooledClient {
+
+		private static final int RETIRED = -1;
+
+		private final String key;
+
+		private final McpSyncClient client;
+
+		private final ToolCallback[] toolCallbacks;
+
+		// number of open leases, RETIRED once the client is closed or about to be.
+		private final AtomicInteger leases = new AtomicInteger();
+
+		private volatile boolean evicted;
+
+		private volatile long lastUsed = System.nanoTime();
+
+		private PooledClient(String key, McpSyncClient client, ToolCallback[] toolCallbacks) {
+			this.key = key;
+			this.client = client;
+			this.toolCallbacks = toolCallbacks;
+		}
+
+		void touch() {
+			this.lastUsed = System.nanoTime();
+		}
+
+		boolean isIdle() {
+			return leases.get() == 0;
+		}
+
+		boolean tryLease() {
+
+			while (true) {
+				int current = leases.get();
+				if (current == RETIRED) {
+					return false;
+				}
+				if (leases.compareAndSet(current, current + 1)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Retire the client if nobody holds a lease, only the winning caller closes it.
+		 */
+		boolean tryRetire() {
+			return leases.compareAndSet(0, RETIRED);
+		}
+
+		boolean forceRetire() {
+			return leases.getAndSet(RETIRED) != RETIRED;
+		}
+
+		boolean isHealthy() {
+
+			try {
+				client.ping();
+				return true;
+			}
+			catch (RuntimeException e) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * A borrowed client, closing it returns the client to the pool.
+	 */
+	public final class Lease implements AutoCloseable {
+
+		private final PooledClient pooled;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private Lease(PooledClient pooled) {
+			this.pooled = pooled;
+		}
+
+		public ToolCallback[] getToolCallbacks() {
+			return pooled.toolCallbacks;
+		}
+
+		@Override
+		public void close() {
+			if (closed.compareAndSet(false, true) && pooled.leases.get() != PooledClient.RETIRED) {
+				release(pooled.key, pooled);
+			}
+		}
+	}
+
+}
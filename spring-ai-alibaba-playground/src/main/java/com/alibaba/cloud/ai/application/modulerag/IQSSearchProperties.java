@@ -28,6 +28,16 @@ public class IQSSearchProperties {
 
 	private String apiKey;
 
+	/**
+	 * Base url of the IQS api.
+	 */
+	private String baseUrl = "https://cloud-iqs.aliyuncs.com/";
+
+	/**
+	 * Maximum number of cached search results, 0 disables the cache.
+	 */
+	private long cacheMaximumSize = 1000;
+
 	public String getApiKey() {
 		return this.apiKey;
 	}
@@ -36,4 +46,20 @@ public class IQSSearchProperties {
 		this.apiKey = apiKey;
 	}
 
+	public String getBaseUrl() {
+		return this.baseUrl;
+	}
+
+	public void setBaseUrl(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	public long getCacheMaximumSize() {
+		return this.cacheMaximumSize;
+	}
+
+	public void setCacheMaximumSize(long cacheMaximumSize) {
+		this.cacheMaximumSize = cacheMaximumSize;
+	}
+
 }
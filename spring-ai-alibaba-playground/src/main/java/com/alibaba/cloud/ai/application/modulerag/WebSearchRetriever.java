@@ -17,10 +17,8 @@
 package com.alibaba.cloud.ai.application.modulerag;
 
 import com.alibaba.cloud.ai.application.entity.iqs.IQSSearchResponse;
-import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.application.modulerag.core.IQSSearchEngine;
 import com.alibaba.cloud.ai.application.modulerag.data.DataClean;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,9 +26,13 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
 
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * spring-ai 从 0.8.0 版本开始不支持 DocumentRanker.
@@ -43,17 +45,30 @@ public class WebSearchRetriever implements DocumentRetriever {
 
 	private static final Logger logger = LoggerFactory.getLogger(WebSearchRetriever.class);
 
+	private static final Duration DEFAULT_SEARCH_TIMEOUT = Duration.ofSeconds(10);
+
+	/**
+	 * Query context key of the {@link Instant} by which the whole retrieval of a request must
+	 * be done. Expanded queries share the context of the original query, so every search of a
+	 * request waits at most until the same deadline, even when the executor runs them one
+	 * after another in the caller thread.
+	 */
+	public static final String RETRIEVAL_DEADLINE = "web_search_retrieval_deadline";
+
 	private final int maxResults;
 
 	private final DataClean dataCleaner;
 
 	private final IQSSearchEngine searchEngine;
 
+	private final Duration searchTimeout;
+
 	private WebSearchRetriever(Builder builder) {
 
 		this.searchEngine = builder.searchEngine;
 		this.maxResults = builder.maxResults;
 		this.dataCleaner = builder.dataCleaner;
+		this.searchTimeout = builder.searchTimeout;
 	}
 
 	@NotNull
@@ -62,12 +77,23 @@ public class WebSearchRetriever implements DocumentRetriever {
 			@Nullable Query query
 	) {
 
-		// 搜索
-		IQSSearchResponse searchResp;
-		try {
-			searchResp = searchEngine.search(query.text());
-		} catch (JsonProcessingException e) {
-			throw new SAAAppException("json process error" + e.getMessage());
+		Duration timeout = timeoutOf(query);
+		if (Objects.isNull(timeout)) {
+			logger.warn("WebSearchRetriever#retrieve() retrieval deadline passed, skip query: {}", query.text());
+			return List.of();
+		}
+
+		// 搜索. 扩展后的每个查询由 RetrievalAugmentationAdvisor 并发调用, 单个查询超时或失败时返回空结果, 不影响其他查询.
+		IQSSearchResponse searchResp = searchEngine.searchAsync(query.text())
+				.timeout(timeout)
+				.onErrorResume(e -> {
+					logger.warn("WebSearchRetriever#retrieve() search failed for query: {}, {}", query.text(), e.toString());
+					return Mono.empty();
+				})
+				.block();
+
+		if (Objects.isNull(searchResp)) {
+			return List.of();
 		}
 
 		// 清洗数据
@@ -90,6 +116,25 @@ public class WebSearchRetriever implements DocumentRetriever {
 		return documents;
 	}
 
+	/**
+	 * The search timeout, shortened to what is left until the retrieval deadline.
+	 * @return null when the deadline has passed
+	 */
+	@Nullable
+	private Duration timeoutOf(Query query) {
+
+		if (!(query.context().get(RETRIEVAL_DEADLINE) instanceof Instant deadline)) {
+			return searchTimeout;
+		}
+
+		Duration remaining = Duration.between(Instant.now(), deadline);
+		if (remaining.isNegative() || remaining.isZero()) {
+			return null;
+		}
+
+		return remaining.compareTo(searchTimeout) < 0 ? remaining : searchTimeout;
+	}
+
 	public static WebSearchRetriever.Builder builder() {
 		return new WebSearchRetriever.Builder();
 	}
@@ -103,6 +148,8 @@ public class WebSearchRetriever implements DocumentRetriever {
 
 		private DataClean dataCleaner;
 
+		private Duration searchTimeout = DEFAULT_SEARCH_TIMEOUT;
+
 		public WebSearchRetriever.Builder searchEngine(IQSSearchEngine searchEngine) {
 
 			this.searchEngine = searchEngine;
@@ -121,6 +168,12 @@ public class WebSearchRetriever implements DocumentRetriever {
 			return this;
 		}
 
+		public WebSearchRetriever.Builder searchTimeout(Duration searchTimeout) {
+
+			this.searchTimeout = searchTimeout;
+			return this;
+		}
+
 		public WebSearchRetriever build() {
 
 			return new WebSearchRetriever(this);
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.core;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.alibaba.cloud.ai.application.entity.iqs.IQSSearchResponse;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Normalized-query cache in front of IQS search.
+ * Entries expire according to the time range of the search, concurrent identical queries
+ * share one upstream call.
+ */
+
+class IQSSearchCache {
+
+	private static final String PREFIX = "playground.iqs.search.cache";
+
+	private static final Duration MAX_TTL = Duration.ofHours(6);
+
+	private final Cache<String, CachedResponse> cache;
+
+	private final Map<String, Mono<IQSSearchResponse>> inFlight = new ConcurrentHashMap<>();
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private final Counter evictions;
+
+	private final Counter coalesced;
+
+	IQSSearchCache(long maximumSize, MeterRegistry registry) {
+
+		this.hits = registry.counter(PREFIX + ".requests", "result", "hit");
+		this.misses = registry.counter(PREFIX + ".requests", "result", "miss");
+		this.coalesced = registry.counter(PREFIX + ".requests", "result", "coalesced");
+		this.evictions = registry.counter(PREFIX + ".evictions");
+
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(MAX_TTL)
+				.<String, CachedResponse>removalListener(notification -> {
+					if (notification.getCause() == RemovalCause.SIZE || notification.getCause() == RemovalCause.EXPIRED) {
+						this.evictions.increment();
+					}
+				})
+				.build();
+	}
+
+	Mono<IQSSearchResponse> get(String query, String timeRange, String engineType,
+			Supplier<Mono<IQSSearchResponse>> upstream) {
+
+		String key = key(query, timeRange, engineType);
+
+		CachedResponse cached = cache.getIfPresent(key);
+		if (cached != null) {
+			if (!cached.isExpired()) {
+				hits.increment();
+				return Mono.just(cached.response());
+			}
+			cache.invalidate(key);
+		}
+
+		boolean[] leader = new boolean[1];
+		Mono<IQSSearchResponse> flight = inFlight.computeIfAbsent(key, k -> {
+			leader[0] = true;
+			long ttlNanos = ttl(timeRange).toNanos();
+			return Mono.defer(upstream)
+					.doOnNext(response -> cache.put(k, new CachedResponse(response, System.nanoTime() + ttlNanos)))
+					.doFinally(signal -> inFlight.remove(k))
+					.cache();
+		});
+
+		if (leader[0]) {
+			misses.increment();
+		}
+		else {
+			coalesced.increment();
+		}
+
+		return flight;
+	}
+
+	/**
+	 * Results for a short time range go stale faster.
+	 */
+	private static Duration ttl(String timeRange) {
+
+		if (timeRange == null) {
+			return Duration.ofHours(1);
+		}
+
+		return switch (timeRange) {
+			case "OneDay" -> Duration.ofMinutes(10);
+			case "OneWeek" -> Duration.ofHours(1);
+			default -> MAX_TTL;
+		};
+	}
+
+	private static String key(String query, String timeRange, String engineType) {
+
+		String normalized = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+		return engineType + "|" + timeRange + "|" + normalized;
+	}
+
+	private record CachedResponse(IQSSearchResponse response, long expiresAtNanos) {
+
+		boolean isExpired() {
+			return System.nanoTime() - expiresAtNanos > 0;
+		}
+	}
+
+}
@@ -21,6 +21,7 @@ import com.alibaba.cloud.ai.application.entity.iqs.IQSSearchResponse;
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.application.modulerag.IQSSearchProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -30,6 +31,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -46,30 +49,98 @@ import java.util.function.Consumer;
 public class IQSSearchEngine {
 
 	private final RestClient restClient;
+	private final WebClient webClient;
 	private final IQSSearchProperties iqsSearchProperties;
-	private static final String BASE_URL = "https://cloud-iqs.aliyuncs.com/";
+	private final IQSSearchCache searchCache;
 	private static final String API_PATH = "/search/unified";
 	private static final String DEFAULT_TIME_RANGE = "OneWeek";
 	private static final String DEFAULT_ENGINE_TYPE = "Generic";
 
 	public IQSSearchEngine(
 			RestClient.Builder restClientBuilder,
+			WebClient.Builder webClientBuilder,
 			IQSSearchProperties iqsSearchProperties,
-			ResponseErrorHandler responseErrorHandler
+			ResponseErrorHandler responseErrorHandler,
+			MeterRegistry meterRegistry
 	) {
 
 		this.iqsSearchProperties = iqsSearchProperties;
 		Assert.hasText(iqsSearchProperties.getApiKey(), "apiKey must not be empty");
-		this.restClient = restClientBuilder.baseUrl(BASE_URL)
+		this.restClient = restClientBuilder.baseUrl(iqsSearchProperties.getBaseUrl())
 				.defaultHeaders(getHeaders())
 				.defaultStatusHandler(responseErrorHandler)
 				.build();
+		this.webClient = webClientBuilder.clone()
+				.baseUrl(iqsSearchProperties.getBaseUrl())
+				.defaultHeaders(getHeaders())
+				.build();
+		this.searchCache = iqsSearchProperties.getCacheMaximumSize() > 0
+				? new IQSSearchCache(iqsSearchProperties.getCacheMaximumSize(), meterRegistry)
+				: null;
 	}
 
 	public IQSSearchResponse search(String query) throws JsonProcessingException {
 
+		if (Objects.isNull(searchCache)) {
+			return doSearch(query);
+		}
+
+		return searchCache.get(query, DEFAULT_TIME_RANGE, DEFAULT_ENGINE_TYPE,
+				() -> Mono.fromCallable(() -> doSearch(query))).block();
+	}
+
+	/**
+	 * Non-blocking variant of {@link #search(String)}, so that several queries can be in flight at once.
+	 */
+	public Mono<IQSSearchResponse> searchAsync(String query) {
+
+		if (Objects.isNull(searchCache)) {
+			return doSearchAsync(query);
+		}
+
+		return searchCache.get(query, DEFAULT_TIME_RANGE, DEFAULT_ENGINE_TYPE, () -> doSearchAsync(query));
+	}
+
+	/**
+	 * Start a search in the background so that a later {@link #search} or {@link #searchAsync}
+	 * of the same query joins it. Does nothing when the cache is disabled.
+	 */
+	public void prefetch(String query) {
+
+		if (Objects.isNull(searchCache)) {
+			return;
+		}
+
+		searchAsync(query).subscribe(response -> { }, error -> { });
+	}
+
+	private IQSSearchResponse doSearch(String query) {
+
+		ResponseEntity<IQSSearchResponse> response = this.restClient.post()
+				.uri(API_PATH)
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(buildRequest(query))
+				.retrieve()
+				.toEntity(IQSSearchResponse.class);
+
+		return genericSearchResult(response);
+	}
+
+	private Mono<IQSSearchResponse> doSearchAsync(String query) {
+
+		return this.webClient.post()
+				.uri(API_PATH)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(buildRequest(query))
+				.retrieve()
+				.toEntity(IQSSearchResponse.class)
+				.map(this::genericSearchResult);
+	}
+
+	private IQSSearchRequest buildRequest(String query) {
+
 		// String encodeQ = URLEncoder.encode(query, StandardCharsets.UTF_8);
-		final IQSSearchRequest request = IQSSearchRequest.builder()
+		return IQSSearchRequest.builder()
 				.query(query)
 				.timeRange(DEFAULT_TIME_RANGE)
 				.engineType(DEFAULT_ENGINE_TYPE)
@@ -80,15 +151,6 @@ public class IQSSearchEngine {
 						.rerankScore(true)
 						.build())
 				.build();
-
-		ResponseEntity<IQSSearchResponse> response = this.restClient.post()
-				.uri(API_PATH)
-				.contentType(MediaType.APPLICATION_JSON)
-				.body(request)
-				.retrieve()
-				.toEntity(IQSSearchResponse.class);
-
-		return genericSearchResult(response);
 	}
 
 	private IQSSearchResponse genericSearchResult(ResponseEntity<IQSSearchResponse> response) {
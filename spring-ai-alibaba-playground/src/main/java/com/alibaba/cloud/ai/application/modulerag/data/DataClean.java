@@ -34,47 +34,40 @@ import java.util.*;
 @Component
 public class DataClean {
 
-	private static final Map<Integer, String> WebLink_MAP = new HashMap<>();
-
 	public List<Document> getData(IQSSearchResponse respData) throws URISyntaxException {
 
 		List<Document> documents = new ArrayList<>();
-		Map<String, Object> metadata = getQueryMetadata(respData);
+		if (Objects.isNull(respData.pageItems())) {
+			return documents;
+		}
+
+		Map<String, Object> queryMetadata = getQueryMetadata(respData);
 
 		for (int i = 0; i < respData.pageItems().size(); i++) {
 
 			IQSSearchResponse.PageItem pageItem = respData.pageItems().get(i);
-			Map<String, Object> pageItemMetadata = getPageItemMetadata(pageItem);
-
-			metadata.putAll(pageItemMetadata);
 
 			if (!StringUtils.hasText(pageItem.mainText()) || pageItem.mainText().length() < 10) {
 				// Skip items with main text that is too short
 				continue;
 			}
 
+			// Each document owns its metadata, the link travels with the document instead of a shared map.
+			Map<String, Object> metadata = new HashMap<>(queryMetadata);
+			metadata.putAll(getPageItemMetadata(pageItem));
+
 			Document document = Document.builder()
 					.metadata(metadata)
 					.text(pageItem.mainText())
 					.score(pageItem.rerankScore())
 					.build();
 
-			if (Objects.nonNull(pageItem.link())) {
-				int index = i;
-				WebLink_MAP.put(index + 1, pageItem.link());
-			}
-
 			documents.add(document);
 		}
 
 		return documents;
 	}
 
-	public Map<Integer, String> getWebLink() {
-
-		return WebLink_MAP;
-	}
-
 	private Map<String, Object> getQueryMetadata(IQSSearchResponse respData) {
 
 		HashMap<String, Object> docsMetadata = new HashMap<>();
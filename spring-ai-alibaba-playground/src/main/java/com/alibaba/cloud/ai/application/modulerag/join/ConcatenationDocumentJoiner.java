@@ -16,15 +16,15 @@
 
 package com.alibaba.cloud.ai.application.modulerag.join;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
 
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -37,6 +37,10 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 /**
+ * Merge the documents retrieved for all expanded queries and keep the best {@code topK}.
+ * Documents are ranked by their score, or by reciprocal rank fusion across the per-query lists,
+ * and de-duplicated on a 64-bit fingerprint of their link (or text).
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
@@ -45,6 +49,34 @@ public class ConcatenationDocumentJoiner implements DocumentJoiner {
 
 	private static final Logger logger = LoggerFactory.getLogger(ConcatenationDocumentJoiner.class);
 
+	private static final int DEFAULT_TOP_K = 10;
+
+	/**
+	 * Rank constant of reciprocal rank fusion, 60 as proposed in the original paper.
+	 */
+	private static final int RRF_K = 60;
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private static final Comparator<Candidate> BY_SCORE = Comparator.comparingDouble(Candidate::score);
+
+	private final int topK;
+
+	private final boolean reciprocalRankFusion;
+
+	public ConcatenationDocumentJoiner() {
+		this(DEFAULT_TOP_K, false);
+	}
+
+	public ConcatenationDocumentJoiner(int topK, boolean reciprocalRankFusion) {
+
+		Assert.isTrue(topK > 0, "topK must be greater than 0");
+		this.topK = topK;
+		this.reciprocalRankFusion = reciprocalRankFusion;
+	}
+
 	@NotNull
 	@Override
 	public List<Document> join(
@@ -54,109 +86,71 @@ public class ConcatenationDocumentJoiner implements DocumentJoiner {
 		Assert.notNull(documentsForQuery, "documentsForQuery cannot be null");
 		Assert.noNullElements(documentsForQuery.keySet(), "documentsForQuery cannot contain null keys");
 		Assert.noNullElements(documentsForQuery.values(), "documentsForQuery cannot contain null values");
-		logger.debug("Joining documents by concatenation");
-
-		Map<Query, List<List<Document>>> selectDocuments = selectDocuments(documentsForQuery, 10);
-
-		Set<String> seen = new HashSet<>();
-
-		return selectDocuments.values().stream()
-				// Flatten List<List<Documents>> to Stream<List<Documents>.
-				.flatMap(List::stream)
-				// Flatten Stream<List<Documents> to Stream<Documents>.
-				.flatMap(List::stream)
-				.filter(doc -> {
-					List<String> keys = extractKeys(doc);
-					for (String key : keys) {
-						if (!seen.add(key)) {
-							logger.info("Duplicate document metadata: {}",doc.getMetadata());
-							// Duplicate keys found.
-							return false;
+		logger.debug("Joining documents, topK: {}, reciprocal rank fusion: {}", topK, reciprocalRankFusion);
+
+		// de-duplicate first, a document found by several queries keeps its best (or fused) score.
+		Map<Long, Candidate> candidates = new HashMap<>();
+		for (List<List<Document>> documentLists : documentsForQuery.values()) {
+			for (List<Document> documents : documentLists) {
+				for (int rank = 0; rank < documents.size(); rank++) {
+					Document document = documents.get(rank);
+					double score = reciprocalRankFusion ? 1.0d / (RRF_K + rank + 1) : scoreOf(document);
+
+					candidates.merge(fingerprint(document), new Candidate(document, score), (existing, current) -> {
+						if (reciprocalRankFusion) {
+							return new Candidate(existing.document(), existing.score() + current.score());
 						}
-					}
-					// All keys are unique.
-					return true;
-				})
-				.collect(Collectors.toList());
-	}
-
-	private Map<Query, List<List<Document>>> selectDocuments(
-			Map<Query, List<List<Document>>> documentsForQuery,
-			int totalDocuments
-	) {
-
-		Map<Query, List<List<Document>>> selectDocumentsForQuery = new HashMap<>();
-
-		int numberOfQueries = documentsForQuery.size();
-
-		if (Objects.equals(0, numberOfQueries)) {
-
-			return selectDocumentsForQuery;
-		}
-
-		int baseCount = totalDocuments / numberOfQueries;
-		int remainder = totalDocuments % numberOfQueries;
-
-		// To ensure consistent distribution. sort the keys (optional)
-		List<Query> sortedQueries = new ArrayList<>(documentsForQuery.keySet());
-		// Other sort
-		// sortedQueries.sort(Comparator.comparing(Query::getSomeProperty));
-		Iterator<Query> iterator = sortedQueries.iterator();
-
-		for (int i = 0; i < numberOfQueries; i ++) {
-			Query query = sortedQueries.get(i);
-			int documentToSelect = baseCount + (i < remainder ? 1 : 0);
-			List<List<Document>> originalDocuments = documentsForQuery.get(query);
-			List<List<Document>> selectedNestLists = new ArrayList<>();
-
-			int remainingDocuments = documentToSelect;
-			for (List<Document> documentList : originalDocuments) {
-				if (remainingDocuments <= 0) {
-					break;
-				}
-
-				List<Document> selectSubList = new ArrayList<>();
-				for (Document docs : documentList) {
-					if (remainingDocuments <= 0) {
-						break;
-					}
-
-					selectSubList.add(docs);
-					remainingDocuments --;
+						return current.score() > existing.score() ? current : existing;
+					});
 				}
+			}
+		}
 
-				if (!selectSubList.isEmpty()) {
-					selectedNestLists.add(selectSubList);
-				}
+		// bounded min-heap, the root is the weakest of the current top K.
+		PriorityQueue<Candidate> heap = new PriorityQueue<>(topK + 1, BY_SCORE);
+		for (Candidate candidate : candidates.values()) {
+			if (heap.size() < topK) {
+				heap.offer(candidate);
+			}
+			else if (candidate.score() > heap.peek().score()) {
+				heap.poll();
+				heap.offer(candidate);
 			}
+		}
 
-			selectDocumentsForQuery.put(query, selectedNestLists);
+		List<Document> result = new ArrayList<>(heap.size());
+		while (!heap.isEmpty()) {
+			result.add(heap.poll().document());
 		}
+		// heap drains in ascending order.
+		Collections.reverse(result);
 
-		return selectDocumentsForQuery;
+		return result;
 	}
 
-	private List<String> extractKeys(Document document) {
+	private static double scoreOf(Document document) {
 
-		List<String> keys = new ArrayList<>();
+		return Objects.nonNull(document.getScore()) ? document.getScore() : 0.0d;
+	}
 
-		if (Objects.nonNull(document)) {
-			keys.add(document.getId());
-		}
+	/**
+	 * 64-bit FNV-1a of the document link, falling back to its text.
+	 */
+	public static long fingerprint(Document document) {
 
-		if (Objects.nonNull(document.getMetadata())) {
-			Object src = document.getMetadata().get("source");
-			if (src instanceof String) {
-				keys.add("SOURCE:" + src);
-			}
+		Object link = document.getMetadata().get("link");
+		String key = link instanceof String s ? s : Objects.requireNonNullElse(document.getText(), document.getId());
 
-			Object fn = document.getMetadata().get("file_name");
-			if (fn instanceof String) {
-				keys.add("FILE_NAME:" + fn);
-			}
+		long hash = FNV_OFFSET_BASIS;
+		for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= (b & 0xff);
+			hash *= FNV_PRIME;
 		}
 
-		return keys;
+		return hash;
+	}
+
+	private record Candidate(Document document, double score) {
 	}
 
 }
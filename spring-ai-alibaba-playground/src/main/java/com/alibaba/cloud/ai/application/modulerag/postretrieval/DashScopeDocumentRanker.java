@@ -16,5 +16,188 @@
 
 package com.alibaba.cloud.ai.application.modulerag.postretrieval;
 
-// Spring AI 0.8.0 删除了 postRetrieval. 在新版本中用户可以通过实现 DocumentPostProcessor 接口来处理。
-// https://docs.spring.io/spring-ai/reference/api/retrieval-augmented-generation.html#_post_retrieval
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.alibaba.cloud.ai.application.modulerag.join.ConcatenationDocumentJoiner;
+import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankOptions;
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+import com.alibaba.cloud.ai.model.RerankModel;
+import com.alibaba.cloud.ai.model.RerankRequest;
+import com.alibaba.cloud.ai.model.RerankResponse;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.postretrieval.document.DocumentPostProcessor;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Spring AI 0.8.0 删除了 postRetrieval. 在新版本中用户可以通过实现 DocumentPostProcessor 接口来处理。
+ * <a href="https://docs.spring.io/spring-ai/reference/api/retrieval-augmented-generation.html#_post_retrieval">post retrieval</a>
+ * <p>
+ * Rerank the joined documents with one rerank call per request and keep the best {@code topN},
+ * so fewer tokens reach the generation prompt. Documents are truncated to a token budget before
+ * they are sent, and scores are cached per (query, document fingerprint).
+ */
+
+public class DashScopeDocumentRanker implements DocumentPostProcessor {
+
+	private static final Logger logger = LoggerFactory.getLogger(DashScopeDocumentRanker.class);
+
+	private static final int DEFAULT_TOP_N = 5;
+
+	private static final int DEFAULT_MAX_TOKENS_PER_DOCUMENT = 512;
+
+	private final RerankModel rerankModel;
+
+	private final int topN;
+
+	private final int maxTokensPerDocument;
+
+	private final TokenCountEstimator tokenCountEstimator = new JTokkitTokenCountEstimator();
+
+	private final Cache<String, Double> scoreCache = CacheBuilder.newBuilder()
+			.maximumSize(10_000)
+			.expireAfterWrite(Duration.ofHours(1))
+			.build();
+
+	private DashScopeDocumentRanker(Builder builder) {
+
+		Assert.notNull(builder.rerankModel, "rerankModel must not be null");
+		Assert.isTrue(builder.topN > 0, "topN must be greater than 0");
+
+		this.rerankModel = builder.rerankModel;
+		this.topN = builder.topN;
+		this.maxTokensPerDocument = builder.maxTokensPerDocument;
+	}
+
+	@NotNull
+	@Override
+	public List<Document> process(@Nullable Query query, @Nullable List<Document> documents) {
+
+		Assert.notNull(query, "query must not be null");
+		Assert.notNull(documents, "documents must not be null");
+
+		if (documents.isEmpty()) {
+			return documents;
+		}
+
+		String queryKey = query.text().trim().toLowerCase(Locale.ROOT);
+		Map<String, Double> scores = new HashMap<>();
+		Map<String, Document> byId = new HashMap<>();
+		List<Document> toRerank = new ArrayList<>();
+
+		for (Document document : documents) {
+			byId.put(document.getId(), document);
+			Double cached = scoreCache.getIfPresent(cacheKey(queryKey, document));
+			if (cached != null) {
+				scores.put(document.getId(), cached);
+			}
+			else {
+				toRerank.add(truncate(document));
+			}
+		}
+
+		if (!toRerank.isEmpty()) {
+			try {
+				// score every candidate, the provider default topN would drop the rest and they could never be cached.
+				DashScopeRerankOptions options = DashScopeRerankOptions.builder().withTopN(toRerank.size()).build();
+				RerankResponse response = rerankModel.call(new RerankRequest(query.text(), toRerank, options));
+				for (DocumentWithScore result : response.getResults()) {
+					Document original = byId.get(result.getOutput().getId());
+					if (original != null && result.getScore() != null) {
+						scores.put(original.getId(), result.getScore());
+						scoreCache.put(cacheKey(queryKey, original), result.getScore());
+					}
+				}
+			}
+			catch (RuntimeException e) {
+				logger.warn("DashScopeDocumentRanker#process() rerank failed, keep retrieval order: {}", e.getMessage());
+				return documents.subList(0, Math.min(topN, documents.size()));
+			}
+		}
+
+		List<Document> ranked = documents.stream()
+				.filter(document -> scores.containsKey(document.getId()))
+				.sorted(Comparator.comparingDouble((Document document) -> scores.get(document.getId())).reversed())
+				.limit(topN)
+				.map(document -> document.mutate().score(scores.get(document.getId())).build())
+				.toList();
+
+		logger.debug("DashScopeDocumentRanker#process() reranked {} documents, reranked by model: {}, kept: {}",
+				documents.size(), toRerank.size(), ranked.size());
+
+		return ranked;
+	}
+
+	private Document truncate(Document document) {
+
+		String text = document.getText();
+		if (text == null) {
+			return document;
+		}
+
+		int tokens = tokenCountEstimator.estimate(text);
+		if (tokens <= maxTokensPerDocument) {
+			return document;
+		}
+
+		int length = (int) ((long) text.length() * maxTokensPerDocument / tokens);
+		return document.mutate().text(text.substring(0, length)).build();
+	}
+
+	private static String cacheKey(String queryKey, Document document) {
+
+		return queryKey + "|" + ConcatenationDocumentJoiner.fingerprint(document);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static final class Builder {
+
+		private RerankModel rerankModel;
+
+		private int topN = DEFAULT_TOP_N;
+
+		private int maxTokensPerDocument = DEFAULT_MAX_TOKENS_PER_DOCUMENT;
+
+		private Builder() {
+		}
+
+		public Builder rerankModel(RerankModel rerankModel) {
+			this.rerankModel = rerankModel;
+			return this;
+		}
+
+		public Builder topN(int topN) {
+			this.topN = topN;
+			return this;
+		}
+
+		public Builder maxTokensPerDocument(int maxTokensPerDocument) {
+			this.maxTokensPerDocument = maxTokensPerDocument;
+			return this;
+		}
+
+		public DashScopeDocumentRanker build() {
+			return new DashScopeDocumentRanker(this);
+		}
+
+	}
+
+}
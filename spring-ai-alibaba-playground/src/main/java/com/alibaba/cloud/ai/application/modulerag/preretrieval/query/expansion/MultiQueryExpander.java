@@ -16,6 +16,8 @@
 
 package com.alibaba.cloud.ai.application.modulerag.preretrieval.query.expansion;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,9 +31,13 @@ import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -66,6 +72,13 @@ public class MultiQueryExpander implements QueryExpander {
 
 	private static final Integer DEFAULT_NUMBER_OF_QUERIES = 3;
 
+	/**
+	 * Queries shorter than this (in code points) are not worth an LLM round trip.
+	 */
+	private static final int SHORT_QUERY_LENGTH = 6;
+
+	private static final int KEYWORD_QUERY_MAX_TERMS = 2;
+
 	private final ChatClient chatClient;
 
 	private final PromptTemplate promptTemplate;
@@ -74,6 +87,17 @@ public class MultiQueryExpander implements QueryExpander {
 
 	private final int numberOfQueries;
 
+	private final boolean streaming;
+
+	private final Consumer<Query> queryListener;
+
+	private final int templateHash;
+
+	private final Cache<String, List<String>> expansionCache = CacheBuilder.newBuilder()
+			.maximumSize(1000)
+			.expireAfterWrite(Duration.ofHours(1))
+			.build();
+
 	public MultiQueryExpander(
 			ChatClient.Builder chatClientBuilder,
 			@Nullable PromptTemplate promptTemplate,
@@ -81,12 +105,27 @@ public class MultiQueryExpander implements QueryExpander {
 			@Nullable Integer numberOfQueries
 	) {
 
+		this(chatClientBuilder, promptTemplate, includeOriginal, numberOfQueries, false, null);
+	}
+
+	public MultiQueryExpander(
+			ChatClient.Builder chatClientBuilder,
+			@Nullable PromptTemplate promptTemplate,
+			@Nullable Boolean includeOriginal,
+			@Nullable Integer numberOfQueries,
+			boolean streaming,
+			@Nullable Consumer<Query> queryListener
+	) {
+
 		Assert.notNull(chatClientBuilder, "ChatClient.Builder must not be null");
 
 		this.chatClient = chatClientBuilder.build();
 		this.promptTemplate = promptTemplate == null ? DEFAULT_PROMPT_TEMPLATE : promptTemplate;
 		this.includeOriginal = includeOriginal == null ? DEFAULT_INCLUDE_ORIGINAL : includeOriginal;
 		this.numberOfQueries = numberOfQueries == null ? DEFAULT_NUMBER_OF_QUERIES : numberOfQueries;
+		this.streaming = streaming;
+		this.queryListener = queryListener == null ? q -> { } : queryListener;
+		this.templateHash = this.promptTemplate.getTemplate().hashCode();
 
 		PromptAssert.templateHasRequiredPlaceholders(this.promptTemplate, "number", "query");
 	}
@@ -97,35 +136,45 @@ public class MultiQueryExpander implements QueryExpander {
 
 		Assert.notNull(query, "Query must not be null");
 
-		logger.debug("Generating {} queries for query: {}", this.numberOfQueries, query.text());
+		if (isShortOrKeywordQuery(query.text())) {
 
-		String resp = this.chatClient.prompt()
-				.user(user -> user.text(this.promptTemplate.getTemplate())
-						.param("number", this.numberOfQueries)
-						.param("query", query.text()))
-				.call()
-				.content();
+			logger.debug("Skip expansion for short or keyword query: {}", query.text());
+			return List.of(query);
+		}
 
-		logger.debug("MultiQueryExpander#expand() Response from chat client: {}", resp);
+		// the original query can be searched while the variants are generated.
+		if (this.includeOriginal) {
+			this.queryListener.accept(query);
+		}
 
-		if (Objects.isNull(resp)) {
+		String cacheKey = this.templateHash + "|" + this.numberOfQueries + "|" + normalize(query.text());
+		List<String> queryVariants = this.expansionCache.getIfPresent(cacheKey);
 
-			logger.warn("No response from chat client for query: {}. is return.", query.text());
-			return List.of(query);
+		if (Objects.nonNull(queryVariants)) {
+
+			logger.debug("Use cached query variants for query: {}", query.text());
+			queryVariants.forEach(variant -> this.queryListener.accept(query.mutate().text(variant).build()));
 		}
+		else {
 
-		List<String> queryVariants = Arrays.stream(resp.split("\n")).filter(StringUtils::hasText).toList();
+			logger.debug("Generating {} queries for query: {}", this.numberOfQueries, query.text());
+			queryVariants = this.streaming ? generateStreaming(query) : generate(query);
 
-		if (CollectionUtils.isEmpty(queryVariants) || this.numberOfQueries != queryVariants.size()) {
+			if (CollectionUtils.isEmpty(queryVariants)) {
 
-			logger.warn("Query expansion result dose not contain the requested {} variants for query: {}. is return.",
-					this.numberOfQueries, query.text());
+				logger.warn("Query expansion result dose not contain any variants for query: {}. is return.", query.text());
+				return List.of(query);
+			}
 
-			return List.of(query);
+			if (queryVariants.size() != this.numberOfQueries) {
+				logger.debug("Query expansion returned {} of the requested {} variants for query: {}.",
+						queryVariants.size(), this.numberOfQueries, query.text());
+			}
+
+			this.expansionCache.put(cacheKey, queryVariants);
 		}
 
 		List<Query> queries = queryVariants.stream()
-				.filter(StringUtils::hasText)
 				.map(queryText -> query.mutate().text(queryText).build())
 				.collect(Collectors.toList());
 
@@ -140,6 +189,90 @@ public class MultiQueryExpander implements QueryExpander {
 		return queries;
 	}
 
+	private List<String> generate(Query query) {
+
+		String resp = this.chatClient.prompt()
+				.user(user -> user.text(this.promptTemplate.getTemplate())
+						.param("number", this.numberOfQueries)
+						.param("query", query.text()))
+				.call()
+				.content();
+
+		logger.debug("MultiQueryExpander#expand() Response from chat client: {}", resp);
+
+		if (Objects.isNull(resp)) {
+			return List.of();
+		}
+
+		// keep what the model returned, even if it is not exactly the requested number of variants.
+		List<String> queryVariants = Arrays.stream(resp.split("\n"))
+				.map(String::trim)
+				.filter(StringUtils::hasText)
+				.limit(this.numberOfQueries)
+				.toList();
+
+		queryVariants.forEach(variant -> this.queryListener.accept(query.mutate().text(variant).build()));
+
+		return queryVariants;
+	}
+
+	/**
+	 * Parse the variants line by line as the response streams in, each variant is handed to
+	 * the listener as soon as its line is complete so retrieval can overlap with generation.
+	 */
+	private List<String> generateStreaming(Query query) {
+
+		List<String> queryVariants = new ArrayList<>();
+		StringBuilder buffer = new StringBuilder();
+
+		Consumer<String> onLine = line -> {
+			String variant = line.trim();
+			if (StringUtils.hasText(variant) && queryVariants.size() < this.numberOfQueries) {
+				queryVariants.add(variant);
+				this.queryListener.accept(query.mutate().text(variant).build());
+			}
+		};
+
+		this.chatClient.prompt()
+				.user(user -> user.text(this.promptTemplate.getTemplate())
+						.param("number", this.numberOfQueries)
+						.param("query", query.text()))
+				.stream()
+				.content()
+				.doOnNext(chunk -> {
+					buffer.append(chunk);
+					int newline;
+					while ((newline = buffer.indexOf("\n")) >= 0) {
+						onLine.accept(buffer.substring(0, newline));
+						buffer.delete(0, newline + 1);
+					}
+				})
+				.blockLast();
+
+		onLine.accept(buffer.toString());
+
+		logger.debug("MultiQueryExpander#expand() Streamed variants from chat client: {}", queryVariants);
+
+		return List.copyOf(queryVariants);
+	}
+
+	private static boolean isShortOrKeywordQuery(String text) {
+
+		String normalized = normalize(text);
+		if (normalized.codePointCount(0, normalized.length()) < SHORT_QUERY_LENGTH) {
+			return true;
+		}
+
+		// e.g. "spring ai" or "dashscope", plain keywords rarely benefit from rephrasing.
+		boolean ascii = normalized.chars().allMatch(c -> c < 128 && (Character.isLetterOrDigit(c) || c == ' ' || c == '-'));
+		return ascii && normalized.split(" ").length <= KEYWORD_QUERY_MAX_TERMS;
+	}
+
+	private static String normalize(String text) {
+
+		return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -154,6 +287,10 @@ public class MultiQueryExpander implements QueryExpander {
 
 		private Integer numberOfQueries;
 
+		private boolean streaming;
+
+		private Consumer<Query> queryListener;
+
 		private Builder() {
 		}
 
@@ -177,8 +314,22 @@ public class MultiQueryExpander implements QueryExpander {
 			return this;
 		}
 
+		public Builder streaming(boolean streaming) {
+			this.streaming = streaming;
+			return this;
+		}
+
+		/**
+		 * Called with every query as soon as it is known, e.g. to start searching early.
+		 */
+		public Builder queryListener(Consumer<Query> queryListener) {
+			this.queryListener = queryListener;
+			return this;
+		}
+
 		public MultiQueryExpander build() {
-			return new MultiQueryExpander(this.chatClientBuilder, this.promptTemplate, this.includeOriginal, this.numberOfQueries);
+			return new MultiQueryExpander(this.chatClientBuilder, this.promptTemplate, this.includeOriginal,
+					this.numberOfQueries, this.streaming, this.queryListener);
 		}
 
 	}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk LRU cache of generated images keyed by (prompt, resolution, style).
+ * Entries are plain files, so hits are streamed from disk without touching the heap.
+ * A returned {@link CachedImage} pins its file, eviction only deletes it once it is closed.
+ */
+
+class ImageDiskCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageDiskCache.class);
+
+	private static final String SUFFIX = ".img";
+
+	private final Path dir;
+
+	// access ordered, the eldest entry is the least recently used one.
+	private final LinkedHashMap<String, Entry> entries;
+
+	ImageDiskCache(Path dir, int maxEntries) {
+
+		this.dir = dir;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > maxEntries) {
+					Entry entry = eldest.getValue();
+					entry.evicted = true;
+					// a pinned file is deleted by its last reader.
+					if (entry.readers == 0) {
+						deleteQuietly(entry.file);
+					}
+					return true;
+				}
+				return false;
+			}
+		};
+
+		try {
+			Files.createDirectories(dir);
+			// rebuild the lru order from the previous run, oldest first.
+			try (Stream<Path> files = Files.list(dir)) {
+				files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+						.sorted(Comparator.comparingLong(ImageDiskCache::lastModified))
+						.forEach(file -> {
+							String name = file.getFileName().toString();
+							String key = name.substring(0, name.length() - SUFFIX.length());
+							entries.put(key, new Entry(key, file));
+						});
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Init image cache dir failed: " + dir, e);
+		}
+
+		logger.info("Init image cache: {}, entries: {}", dir.toAbsolutePath(), entries.size());
+	}
+
+	static String key(String prompt, String resolution, String style) {
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update((prompt + '\n' + resolution + '\n' + style).getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Look up and pin a cached image, the caller must close it after reading.
+	 */
+	synchronized Optional<CachedImage> get(String key) {
+
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return Optional.empty();
+		}
+		if (!Files.exists(entry.file)) {
+			entries.remove(key);
+			return Optional.empty();
+		}
+
+		return Optional.of(pin(entry));
+	}
+
+	/**
+	 * Copy the stream into the cache, the file only becomes visible once it is complete.
+	 * The returned image is pinned like the result of {@link #get}.
+	 */
+	CachedImage put(String key, InputStream in) throws IOException {
+
+		Path tmp = Files.createTempFile(dir, key, ".tmp");
+		try {
+			Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+			Path file = dir.resolve(key + SUFFIX);
+
+			// moved under the lock, so a deferred delete of an evicted entry can not hit the new file.
+			synchronized (this) {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				Entry entry = new Entry(key, file);
+				entries.put(key, entry);
+				return pin(entry);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	private CachedImage pin(Entry entry) {
+
+		entry.readers++;
+		return new CachedImage(entry);
+	}
+
+	private synchronized void unpin(Entry entry) {
+
+		entry.readers--;
+		// the key may already point to a newer file at the same path.
+		if (entry.readers == 0 && entry.evicted && !entries.containsKey(entry.key)) {
+			deleteQuietly(entry.file);
+		}
+	}
+
+	private static long lastModified(Path file) {
+
+		try {
+			return Files.getLastModifiedTime(file).toMillis();
+		}
+		catch (IOException e) {
+			return 0L;
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException e) {
+			logger.warn("Delete cached image {} failed: {}", file, e.getMessage());
+		}
+	}
+
+	private static final class Entry {
+
+		private final String key;
+
+		private final Path file;
+
+		// guarded by the cache monitor.
+		private int readers;
+
+		private boolean evicted;
+
+		private Entry(String key, Path file) {
+			this.key = key;
+			this.file = file;
+		}
+	}
+
+	/**
+	 * A pinned cache file, closing it lets eviction delete the file again.
+	 */
+	final class CachedImage implements AutoCloseable {
+
+		private final Entry entry;
+
+		private boolean closed;
+
+		private CachedImage(Entry entry) {
+			this.entry = entry;
+		}
+
+		Path file() {
+			return entry.file;
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				unpin(entry);
+			}
+		}
+	}
+
+}
@@ -18,16 +18,22 @@ package com.alibaba.cloud.ai.application.service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import com.alibaba.cloud.ai.application.exception.SAAAIException;
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.application.utils.FilesUtils;
+import com.alibaba.cloud.ai.dashscope.api.DashScopeSpeechSynthesisApi;
 import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioTranscriptionOptions;
+import com.alibaba.cloud.ai.dashscope.audio.DashScopeSpeechSynthesisOptions;
 import com.alibaba.cloud.ai.dashscope.audio.synthesis.SpeechSynthesisModel;
 import com.alibaba.cloud.ai.dashscope.audio.synthesis.SpeechSynthesisPrompt;
-import com.alibaba.cloud.ai.dashscope.audio.synthesis.SpeechSynthesisResponse;
 import com.alibaba.cloud.ai.dashscope.audio.transcription.AudioTranscriptionModel;
 import reactor.core.publisher.Flux;
 
@@ -52,6 +58,23 @@ public class SAAAudioService {
 
 	private static final String DEFAULT_MODEL_1 = "sensevoice-v1";
 
+	/**
+	 * Segments synthesized ahead of the one being streamed
+	 */
+	private static final int SEGMENT_CONCURRENCY = 2;
+
+	private static final int MAX_SEGMENT_LENGTH = 120;
+
+	// split after the terminator, so it stays with its sentence.
+	private static final Pattern SENTENCE_BOUNDARY = Pattern.compile("(?<=[。！？；!?;\\n])|(?<=[.])(?=\\s)");
+
+	private static final String CLAUSE_PUNCTUATION = "，、,：: ";
+
+	// the controller serves audio/mpeg, so do not rely on the provider default format.
+	private static final DashScopeSpeechSynthesisOptions SYNTHESIS_OPTIONS = DashScopeSpeechSynthesisOptions.builder()
+			.withResponseFormat(DashScopeSpeechSynthesisApi.ResponseFormat.MP3)
+			.build();
+
 	public SAAAudioService(
 			AudioTranscriptionModel transcriptionModel,
 			SpeechSynthesisModel speechSynthesisModel
@@ -66,37 +89,118 @@ public class SAAAudioService {
 	 */
 	public byte[] text2audio(String prompt) {
 
-		Flux<SpeechSynthesisResponse> response = speechSynthesisModel.stream(
-				new SpeechSynthesisPrompt(prompt)
-		);
-
-		CountDownLatch latch = new CountDownLatch(1);
 		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
 		try {
-			response.doFinally(
-					signal -> latch.countDown()
-			).subscribe(synthesisResponse -> {
+			text2audio(prompt, outputStream);
+		}
+		catch (IOException e) {
+			throw new SAAAIException("Error writing to output stream " + e.getMessage());
+		}
 
-				ByteBuffer byteBuffer = synthesisResponse.getResult().getOutput().getAudio();
-				byte[] bytes = new byte[byteBuffer.remaining()];
-				byteBuffer.get(bytes);
+		return outputStream.toByteArray();
+	}
 
-				try {
-					outputStream.write(bytes);
-				}
-				catch (IOException e) {
-					throw new SAAAIException("Error writing to output stream " + e.getMessage());
-				}
-			});
+	/**
+	 * Convert text to speech and write each audio chunk to the output as soon as it is synthesized.
+	 */
+	public void text2audio(String prompt, OutputStream outputStream) throws IOException {
+
+		// closing the stream cancels the synthesis, a failed write (client gone) stops it too.
+		try (Stream<ByteBuffer> chunks = text2audioStream(prompt).toStream()) {
+			Iterator<ByteBuffer> iterator = chunks.iterator();
+			while (iterator.hasNext()) {
+				write(iterator.next(), outputStream);
+			}
+		}
+	}
+
+	private static void write(ByteBuffer audio, OutputStream outputStream) throws IOException {
 
-			latch.await();
+		if (audio.hasArray()) {
+			outputStream.write(audio.array(), audio.arrayOffset() + audio.position(), audio.remaining());
 		}
-		catch (InterruptedException e) {
-			throw new SAAAppException("Operation interrupted. " + e.getMessage());
+		else {
+			byte[] bytes = new byte[audio.remaining()];
+			audio.get(bytes);
+			outputStream.write(bytes);
 		}
+		outputStream.flush();
+	}
 
-		return outputStream.toByteArray();
+	/**
+	 * Split the text into sentences and synthesize them in a pipeline.
+	 * The next segments are synthesized while the current one is streamed, audio keeps the text order,
+	 * so the time to first audio only depends on the first sentence.
+	 */
+	public Flux<ByteBuffer> text2audioStream(String prompt) {
+
+		if (prompt == null || prompt.isBlank()) {
+			throw new SAAAppException("Prompt is null or empty");
+		}
+
+		return Flux.fromIterable(splitSentences(prompt))
+				.flatMapSequential(
+						segment -> speechSynthesisModel.stream(new SpeechSynthesisPrompt(segment, SYNTHESIS_OPTIONS)),
+						SEGMENT_CONCURRENCY
+				)
+				.map(synthesisResponse -> synthesisResponse.getResult().getOutput().getAudio())
+				.filter(ByteBuffer::hasRemaining);
+	}
+
+	/**
+	 * Split at sentence terminators and merge short sentences up to MAX_SEGMENT_LENGTH,
+	 * a sentence longer than that is cut at clause punctuation or hard cut.
+	 */
+	static List<String> splitSentences(String text) {
+
+		List<String> segments = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+
+		for (String sentence : SENTENCE_BOUNDARY.split(text.strip())) {
+			String trimmed = sentence.strip();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			if (!current.isEmpty() && current.length() + trimmed.length() > MAX_SEGMENT_LENGTH) {
+				segments.add(current.toString());
+				current.setLength(0);
+			}
+			if (trimmed.length() > MAX_SEGMENT_LENGTH) {
+				segments.addAll(cutLongSentence(trimmed));
+				continue;
+			}
+			// keep the space between latin sentences.
+			if (!current.isEmpty() && current.charAt(current.length() - 1) < 128) {
+				current.append(' ');
+			}
+			current.append(trimmed);
+		}
+		if (!current.isEmpty()) {
+			segments.add(current.toString());
+		}
+
+		return segments;
+	}
+
+	private static List<String> cutLongSentence(String sentence) {
+
+		List<String> parts = new ArrayList<>();
+		int start = 0;
+		while (sentence.length() - start > MAX_SEGMENT_LENGTH) {
+			int end = start + MAX_SEGMENT_LENGTH;
+			// prefer the last clause punctuation inside the window.
+			for (int i = end - 1; i > start + MAX_SEGMENT_LENGTH / 2; i--) {
+				if (CLAUSE_PUNCTUATION.indexOf(sentence.charAt(i)) >= 0) {
+					end = i + 1;
+					break;
+				}
+			}
+			parts.add(sentence.substring(start, end));
+			start = end;
+		}
+		parts.add(sentence.substring(start));
+
+		return parts;
 	}
 
 	/**
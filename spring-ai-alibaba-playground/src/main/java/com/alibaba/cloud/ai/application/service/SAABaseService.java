@@ -17,15 +17,42 @@
 package com.alibaba.cloud.ai.application.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.application.utils.ModelsUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 /**
+ * The model catalog is loaded once at startup and swapped atomically when models.yaml changes,
+ * so the request path only reads an immutable snapshot.
+ * <p>
+ * Set {@code spring.ai.alibaba.playground.models-file} to an external models.yaml to change the
+ * catalog of a packaged application, the bundled classpath copy is used until that file exists.
+ *
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
@@ -33,18 +60,155 @@ import org.springframework.stereotype.Service;
 @Service
 public class SAABaseService {
 
-	public Set<Map<String, String>> getDashScope() {
+	private static final Logger logger = LoggerFactory.getLogger(SAABaseService.class);
+
+	private static final String MODEL = "model";
+
+	private volatile ModelCatalog catalog = new ModelCatalog(Set.of(), Set.of());
+
+	private final String externalModelsFile;
+
+	private WatchService watchService;
+
+	public SAABaseService(@Value("${spring.ai.alibaba.playground.models-file:}") String externalModelsFile) {
 
-		Set<Map<String, String>> resultSet;
+		this.externalModelsFile = externalModelsFile;
+	}
+
+	@PostConstruct
+	public void init() {
+
+		Path modelsFile = resolveModelsFile();
 
 		try {
-			resultSet = ModelsUtils.getDashScopeModels();
+			if (modelsFile != null && Files.isRegularFile(modelsFile)) {
+				try (InputStream inputStream = Files.newInputStream(modelsFile)) {
+					this.catalog = ModelCatalog.of(ModelsUtils.getDashScopeModels(inputStream));
+				}
+			}
+			else {
+				this.catalog = ModelCatalog.of(ModelsUtils.getDashScopeModels());
+			}
 		}
 		catch (IOException e) {
 			throw new SAAAppException("Get DashScope Model failed, " + e.getMessage());
 		}
 
-		return resultSet;
+		if (modelsFile != null) {
+			watchModelsFile(modelsFile);
+		}
+	}
+
+	@PreDestroy
+	public void destroy() throws IOException {
+
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+
+	public Set<Map<String, String>> getDashScope() {
+
+		return catalog.models();
+	}
+
+	public boolean isSupportedModel(String model) {
+
+		return catalog.names().contains(model);
+	}
+
+	/**
+	 * The configured external models file, otherwise the classpath copy when it is a plain file,
+	 * i.e. running from an exploded classpath. {@code null} when there is nothing to watch.
+	 */
+	private Path resolveModelsFile() {
+
+		if (StringUtils.hasText(externalModelsFile)) {
+			return Paths.get(externalModelsFile).toAbsolutePath();
+		}
+
+		URL resource = ModelsUtils.getDashScopeModelsResource();
+		if (resource == null || !"file".equals(resource.getProtocol())) {
+			return null;
+		}
+
+		try {
+			return Paths.get(resource.toURI());
+		}
+		catch (URISyntaxException e) {
+			return null;
+		}
+	}
+
+	private void watchModelsFile(Path modelsFile) {
+
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+			modelsFile.getParent().register(watchService,
+					StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		}
+		catch (IOException e) {
+			logger.warn("Watch models file {} failed, hot reload is disabled: {}", modelsFile, e.getMessage());
+			return;
+		}
+
+		Thread watcher = new Thread(() -> {
+			try {
+				while (true) {
+					WatchKey key = watchService.take();
+					boolean changed = key.pollEvents().stream()
+							.anyMatch(event -> modelsFile.getFileName().equals(event.context()));
+					if (changed) {
+						reload(modelsFile);
+					}
+					key.reset();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			catch (ClosedWatchServiceException ignored) {
+				// application is shutting down.
+			}
+		}, "models-file-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	private void reload(Path modelsFile) {
+
+		try (InputStream inputStream = Files.newInputStream(modelsFile)) {
+			this.catalog = ModelCatalog.of(ModelsUtils.getDashScopeModels(inputStream));
+			logger.info("Reloaded DashScope models: {}", catalog.names());
+		}
+		catch (IOException | RuntimeException e) {
+			// keep serving the previous catalog.
+			logger.warn("Reload DashScope models failed: {}", e.getMessage());
+		}
+	}
+
+	private record ModelCatalog(Set<Map<String, String>> models, Set<String> names) {
+
+		static ModelCatalog of(Set<Map<String, String>> models) {
+
+			// entries without a name can not be selected, a missing description is shown as empty.
+			Set<Map<String, String>> immutableModels = models.stream()
+					.filter(model -> model.get(MODEL) != null)
+					.map(ModelCatalog::copyWithoutNulls)
+					.collect(Collectors.toUnmodifiableSet());
+			Set<String> names = immutableModels.stream()
+					.map(model -> model.get(MODEL))
+					.collect(Collectors.toCollection(HashSet::new));
+
+			return new ModelCatalog(immutableModels, Collections.unmodifiableSet(names));
+		}
+
+		private static Map<String, String> copyWithoutNulls(Map<String, String> model) {
+
+			Map<String, String> copy = new HashMap<>();
+			model.forEach((key, value) -> copy.put(key, value != null ? value : ""));
+			return Map.copyOf(copy);
+		}
 	}
 
 }
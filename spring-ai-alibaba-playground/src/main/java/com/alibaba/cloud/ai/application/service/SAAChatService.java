@@ -16,7 +16,10 @@
 
 package com.alibaba.cloud.ai.application.service;
 
-import java.util.Objects;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.alibaba.cloud.ai.advisor.DocumentRetrievalAdvisor;
 import com.alibaba.cloud.ai.application.advisor.ReasoningContentAdvisor;
@@ -33,6 +36,7 @@ import reactor.core.publisher.Flux;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.PromptTemplate;
@@ -50,10 +54,14 @@ public class SAAChatService {
 
 	private static final Logger log = LoggerFactory.getLogger(SAAChatService.class);
 
+	private static final Set<String> REASONING_MODELS = Set.of(DashScopeApi.ChatModel.DEEPSEEK_R1.getValue());
+
 	private final ChatClient chatClient;
 
 	private final DashScopeApi dashscopeApi;
 
+	private final SAABaseService baseService;
+
 	@Value("${spring.ai.alibaba.playground.bailian.enable:false}")
 	private Boolean enable;
 
@@ -66,8 +74,14 @@ public class SAAChatService {
 
 	private DocumentRetrievalAdvisor retrievalAdvisor;
 
+	/**
+	 * Request options are immutable per (model, mode), build them once and share across requests.
+	 */
+	private Map<ChatProfileKey, ChatProfile> chatProfiles = Map.of();
+
 	public SAAChatService(
 			DashScopeApi dashscopeApi,
+			SAABaseService baseService,
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
 			MessageChatMemoryAdvisor messageChatMemoryAdvisor,
 			@Qualifier("dashscopeChatModel") ChatModel chatModel,
@@ -75,6 +89,7 @@ public class SAAChatService {
 			@Qualifier("deepThinkPromptTemplate") PromptTemplate deepThinkPromptTemplate
 	) {
 		this.dashscopeApi = dashscopeApi;
+		this.baseService = baseService;
 		this.chatClient = ChatClient.builder(chatModel)
 				.defaultSystem(
 					systemPromptTemplate.getTemplate()
@@ -102,63 +117,97 @@ public class SAAChatService {
 		}else {
 			log.info("Bailian RAG is disabled, DocumentRetrievalAdvisor will not be initialized");
 		}
+
+		Map<ChatProfileKey, ChatProfile> profiles = new HashMap<>();
+		for (Map<String, String> model : baseService.getDashScope()) {
+			for (ChatMode mode : ChatMode.values()) {
+				ChatProfileKey key = new ChatProfileKey(model.get("model"), mode);
+				profiles.put(key, buildProfile(key));
+			}
+		}
+		this.chatProfiles = Map.copyOf(profiles);
 	}
 
 	public Flux<String> chat(String chatId, String model, String prompt) {
 
 		log.debug("chat model is: {}", model);
 
-		// check if model == "deepseek-r1", output reasoning content.
-		if (Objects.equals("deepseek-r1", model)) {
-			// add reasoning content advisor.
-			chatClient.prompt().advisors(reasoningContentAdvisor);
+		ChatProfile profile = getProfile(model, ChatMode.CHAT);
+		ChatClient.ChatClientRequestSpec clientRequestSpec = chatClient.prompt()
+				.options(profile.options())
+				.user(prompt)
+				.advisors(profile.advisors())
+				.advisors(memoryAdvisor -> memoryAdvisor
+						.param(ChatMemory.CONVERSATION_ID, chatId)
+				);
+
+		// Only add if enable is true and retrievalAdvisor is initialized
+		if (enable && retrievalAdvisor != null) {
+			log.debug("Adding DocumentRetrievalAdvisor to chat");
+			clientRequestSpec.advisors(retrievalAdvisor);
 		}
-		var runtimeOptions = DashScopeChatOptions.builder()
-				.withModel(model)
+
+		return clientRequestSpec.stream().content();
+	}
+
+	public Flux<String> deepThinkingChat(String chatId, String model, String prompt) {
+
+		ChatProfile profile = getProfile(model, ChatMode.DEEP_THINKING);
+		ChatClient.ChatClientRequestSpec clientRequestSpec = chatClient.prompt()
+				.options(profile.options())
+				.system(deepThinkPromptTemplate.getTemplate())
+				.user(prompt)
+				.advisors(profile.advisors())
+				.advisors(memoryAdvisor -> memoryAdvisor
+						.param(ChatMemory.CONVERSATION_ID, chatId)
+				);
+
+		// Only add if enable is true and retrievalAdvisor is initialized
+		if (enable && retrievalAdvisor != null) {
+			log.debug("Adding DocumentRetrievalAdvisor to deepThinkingChat");
+			clientRequestSpec.advisors(retrievalAdvisor);
+		}
+
+		return clientRequestSpec.stream().content();
+	}
+
+	private ChatProfile getProfile(String model, ChatMode mode) {
+
+		ChatProfileKey key = new ChatProfileKey(model, mode);
+		ChatProfile profile = chatProfiles.get(key);
+
+		// models added by a hot reload of models.yaml are built on demand.
+		return profile != null ? profile : buildProfile(key);
+	}
+
+	private ChatProfile buildProfile(ChatProfileKey key) {
+
+		DashScopeChatOptions options = DashScopeChatOptions.builder()
+				.withModel(key.model())
 				.withTemperature(0.8)
 				.withResponseFormat(DashScopeResponseFormat.builder()
 						.type(DashScopeResponseFormat.Type.TEXT)
 						.build()
 				).build();
 
-        ChatClient.ChatClientRequestSpec clientRequestSpec = chatClient.prompt()
-                .options(runtimeOptions)
-                .user(prompt)
-                .advisors(memoryAdvisor -> memoryAdvisor
-                        .param(ChatMemory.CONVERSATION_ID, chatId)
-                );
+		// check if model is deepseek-r1, output reasoning content.
+		List<Advisor> advisors = key.mode() == ChatMode.CHAT && REASONING_MODELS.contains(key.model())
+				? List.of(reasoningContentAdvisor)
+				: List.of();
 
-        // Only add if enable is true and retrievalAdvisor is initialized
-        if (enable && retrievalAdvisor != null) {
-            log.debug("Adding DocumentRetrievalAdvisor to chat");
-            clientRequestSpec.advisors(retrievalAdvisor);
-        }
+		return new ChatProfile(options, advisors);
+	}
+
+	private enum ChatMode {
+
+		CHAT, DEEP_THINKING
 
-        return clientRequestSpec.stream().content();
 	}
 
-	public Flux<String> deepThinkingChat(String chatId, String model, String prompt) {
+	private record ChatProfileKey(String model, ChatMode mode) {
+	}
+
+	private record ChatProfile(DashScopeChatOptions options, List<Advisor> advisors) {
+	}
 
-        ChatClient.ChatClientRequestSpec clientRequestSpec = chatClient.prompt()
-                .options(DashScopeChatOptions.builder()
-                        .withModel(model)
-                        .withTemperature(0.8)
-                        .withResponseFormat(DashScopeResponseFormat.builder()
-                                .type(DashScopeResponseFormat.Type.TEXT)
-                                .build()
-                        ).build()
-                ).system(deepThinkPromptTemplate.getTemplate())
-                .user(prompt)
-                .advisors(memoryAdvisor -> memoryAdvisor
-                        .param(ChatMemory.CONVERSATION_ID, chatId)
-                );
-
-        // Only add if enable is true and retrievalAdvisor is initialized
-        if (enable && retrievalAdvisor != null) {
-            log.debug("Adding DocumentRetrievalAdvisor to deepThinkingChat");
-            clientRequestSpec.advisors(retrievalAdvisor);
-        }
-
-        return clientRequestSpec.stream().content();
-    }
 }
@@ -16,36 +16,42 @@
 
 package com.alibaba.cloud.ai.application.service;
 
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.application.utils.FilesUtils;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import com.alibaba.cloud.ai.dashscope.chat.MessageFormat;
 import com.alibaba.cloud.ai.dashscope.image.DashScopeImageOptions;
 import com.google.common.collect.Lists;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.content.Media;
 import org.springframework.ai.image.ImageGeneration;
 import org.springframework.ai.image.ImageModel;
 import org.springframework.ai.image.ImagePrompt;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
 
 import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.MESSAGE_FORMAT;
 
@@ -61,6 +67,10 @@ public class SAAImageService {
 
 	private static final String DEFAULT_IMAGE_MODEL = "wanx2.1-t2i-turbo";
 
+	private static final Duration IMAGE_MAX_AGE = Duration.ofHours(1);
+
+	private static final Logger logger = LoggerFactory.getLogger(SAAImageService.class);
+
 	/**
 	 * Images generate text
 	 */
@@ -71,12 +81,21 @@ public class SAAImageService {
 	 */
 	private final ChatClient daschScopeChatClient;
 
+	/**
+	 * Optional cache of generated images, null when disabled
+	 */
+	private final ImageDiskCache imageCache;
+
 	public SAAImageService(
 			@Qualifier("dashscopeChatModel") ChatModel chatModel,
-			@Qualifier("dashScopeImageModel") ImageModel imageModel
+			@Qualifier("dashScopeImageModel") ImageModel imageModel,
+			@Value("${spring.ai.alibaba.playground.image.cache.enabled:false}") boolean cacheEnabled,
+			@Value("${spring.ai.alibaba.playground.image.cache.dir:tmp/image-cache}") String cacheDir,
+			@Value("${spring.ai.alibaba.playground.image.cache.max-entries:200}") int cacheMaxEntries
 	) {
 
 		this.imageModel = imageModel;
+		this.imageCache = cacheEnabled ? new ImageDiskCache(Path.of(cacheDir), cacheMaxEntries) : null;
 		this.daschScopeChatClient = ChatClient
 				.builder(chatModel)
 				.build();
@@ -84,23 +103,21 @@ public class SAAImageService {
 
 	public Flux<String> image2Text(String prompt, MultipartFile file) throws IOException {
 
-		String filePath = FilesUtils.saveTempFile(file, "/tmp/image/");
-//		UserMessage message = new UserMessage(
-//				prompt,
-//				new Media(
-//						MimeTypeUtils.IMAGE_PNG,
-//						new FileSystemResource(filePath)
-//				)
-//		);
-		List<Media> mediaList = Lists.newArrayList(new Media(
-				MimeTypeUtils.IMAGE_PNG,
-				new FileSystemResource(filePath)
-		));
+		if (file == null || file.isEmpty()) {
+			throw new SAAAppException("File is null or empty");
+		}
+
+		// keep the upload in memory, dashscope receives it as base64 data url.
+		byte[] image = file.getBytes();
+		List<Media> mediaList = Lists.newArrayList(Media.builder()
+				.mimeType(FilesUtils.detectImageMimeType(image, file.getContentType()))
+				.data(image)
+				.build());
 		UserMessage message =
 				UserMessage.builder().text(prompt).media(mediaList).metadata(new HashMap<>()).build();
 		message.getMetadata().put(MESSAGE_FORMAT, MessageFormat.IMAGE);
 
-		List<ChatResponse> response = daschScopeChatClient.prompt(
+		return daschScopeChatClient.prompt(
 						new Prompt(
 								message,
 								DashScopeChatOptions.builder()
@@ -108,19 +125,7 @@ public class SAAImageService {
 										.withMultiModel(true)
 										.build())
 				).stream()
-				.chatResponse()
-				.collectList()
-				.block();
-
-		StringBuilder result = new StringBuilder();
-		if (response != null) {
-			for (ChatResponse chatResponse : response) {
-				String outputContent = chatResponse.getResult().getOutput().getText();
-				result.append(outputContent);
-			}
-		}
-
-		return Flux.just(result.toString());
+				.content();
 	}
 
 	/**
@@ -131,10 +136,16 @@ public class SAAImageService {
 	 */
 	public void text2Image(String prompt, String resolution, String style, HttpServletResponse response) {
 
-
-		//
-		HttpHeaders headers = new HttpHeaders();
-		headers.add("Content-Security-Policy", "img-src 'self' data:;");
+		String cacheKey = ImageDiskCache.key(prompt, resolution, style);
+		if (imageCache != null) {
+			Optional<ImageDiskCache.CachedImage> cached = imageCache.get(cacheKey);
+			if (cached.isPresent()) {
+				try (ImageDiskCache.CachedImage image = cached.get()) {
+					writeFile(image.file(), response);
+				}
+				return;
+			}
+		}
 
 		ImageGeneration result = imageModel.call(
 				new ImagePrompt(
@@ -150,17 +161,66 @@ public class SAAImageService {
 		String imageUrl = result.getOutput().getUrl();
 
 		try {
-			URL url = URI.create(imageUrl).toURL();
-			InputStream in = url.openStream();
+			URLConnection connection = URI.create(imageUrl).toURL().openConnection();
+			try (InputStream in = connection.getInputStream()) {
+
+				if (imageCache != null) {
+					try (ImageDiskCache.CachedImage image = imageCache.put(cacheKey, in)) {
+						writeFile(image.file(), response);
+					}
+					return;
+				}
+
+				// relay the body through a fixed size buffer instead of loading it into the heap.
+				writeHeaders(response, connection.getContentType(), connection.getContentLengthLong());
+				in.transferTo(response.getOutputStream());
+				response.getOutputStream().flush();
+			}
+		}
+		catch (IOException e) {
+			logger.error("Relay generated image failed, msg: {}", e.getMessage());
+			if (!response.isCommitted()) {
+				response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			}
+		}
+	}
+
+	private void writeFile(Path file, HttpServletResponse response) {
+
+		try {
+			byte[] head = new byte[16];
+			int read;
+			try (InputStream in = Files.newInputStream(file)) {
+				read = in.readNBytes(head, 0, head.length);
+			}
 
-			response.setHeader("Content-Security-Policy", "img-src 'self' data:;");
-			response.setHeader("Content-Type", MediaType.IMAGE_PNG_VALUE);
-			response.getOutputStream().write(in.readAllBytes());
+			writeHeaders(
+					response,
+					FilesUtils.detectImageMimeType(Arrays.copyOf(head, read), null).toString(),
+					Files.size(file)
+			);
+			Files.copy(file, response.getOutputStream());
 			response.getOutputStream().flush();
 		}
 		catch (IOException e) {
-			response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			logger.error("Write cached image {} failed, msg: {}", file, e.getMessage());
+			if (!response.isCommitted()) {
+				response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			}
+		}
+	}
+
+	private static void writeHeaders(HttpServletResponse response, String contentType, long contentLength) {
+
+		response.setHeader("Content-Security-Policy", "img-src 'self' data:;");
+		response.setContentType(
+				contentType != null && contentType.startsWith("image/") ? contentType : MediaType.IMAGE_PNG_VALUE
+		);
+		if (contentLength >= 0) {
+			response.setContentLengthLong(contentLength);
 		}
+		// the same prompt renders a different image each time, only the browser may reuse it.
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + IMAGE_MAX_AGE.toSeconds());
 	}
 
 }
@@ -17,23 +17,41 @@
 package com.alibaba.cloud.ai.application.service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
 import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import com.alibaba.cloud.ai.application.mcp.McpServerContainer;
 import com.alibaba.cloud.ai.application.mcp.McpServerUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.alibaba.cloud.ai.application.mcp.McpStdioClientPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
@@ -41,11 +59,12 @@ import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.mcp.client.autoconfigure.properties.McpStdioClientProperties;
 import org.springframework.ai.model.tool.ToolCallingChatOptions;
-import org.springframework.ai.model.tool.ToolCallingManager;
-import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import static com.alibaba.cloud.ai.application.mcp.McpServerUtils.getMcpLibsAbsPath;
@@ -59,27 +78,53 @@ public class SAAMcpService {
 
 	private final ChatClient chatClient;
 
-	private final ObjectMapper objectMapper;
+	// no default tools, run() only exposes the tools of the pooled server.
+	private final ChatClient runChatClient;
 
 	private final ToolCallbackProvider tools;
 
-	private final ToolCallingManager toolCallingManager;
+	private final MeterRegistry meterRegistry;
 
-	private final McpStdioClientProperties mcpStdioClientProperties;
+	private final McpStdioClientPool clientPool;
+
+	// mcp-config.yml loaded once, java lib paths already rewritten.
+	private final Map<String, McpStdioClientProperties.Parameters> serverParameters;
+
+	// tool name -> mcp server name, used to tag tool metrics.
+	private volatile ToolServerIndex toolServerIndex = ToolServerIndex.EMPTY;
+
+	/**
+	 * Runs the tool calls of one turn concurrently. Kept private to this service so
+	 * Spring Boot's auto-configured applicationTaskExecutor stays in place.
+	 */
+	private final ThreadPoolTaskExecutor toolExecutor;
+
+	private final Duration toolTimeout;
+
+	private static final String UNKNOWN = "unknown";
 
 	private static final Logger logger = LoggerFactory.getLogger(SAAMcpService.class);
 
 	public SAAMcpService(
-			ObjectMapper objectMapper,
 			ToolCallbackProvider tools,
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
-			ToolCallingManager toolCallingManager,
-			McpStdioClientProperties mcpStdioClientProperties,
-			@Qualifier("openAiChatModel") ChatModel chatModel
+			MeterRegistry meterRegistry,
+			McpStdioClientPool clientPool,
+			@Qualifier("openAiChatModel") ChatModel chatModel,
+			@Value("${spring.ai.alibaba.playground.mcp.tool-timeout:30s}") Duration toolTimeout
 	) throws IOException {
 
-		this.objectMapper = objectMapper;
-		this.mcpStdioClientProperties = mcpStdioClientProperties;
+		this.clientPool = clientPool;
+		this.toolTimeout = toolTimeout;
+
+		// tool calls are I/O bound (stdio / http), no caller-runs fallback so the timeout always applies.
+		this.toolExecutor = new ThreadPoolTaskExecutor();
+		this.toolExecutor.setThreadNamePrefix("mcp-tool-");
+		this.toolExecutor.setCorePoolSize(32);
+		this.toolExecutor.setMaxPoolSize(32);
+		this.toolExecutor.setQueueCapacity(256);
+		this.toolExecutor.setAllowCoreThreadTimeOut(true);
+		this.toolExecutor.initialize();
 
 		// Initialize chat client with non-blocking configuration
 		this.chatClient = ChatClient.builder(chatModel)
@@ -87,32 +132,100 @@ public class SAAMcpService {
 						simpleLoggerAdvisor
 				).defaultToolCallbacks(tools)
 				.build();
+		this.runChatClient = ChatClient.builder(chatModel)
+				.defaultAdvisors(
+						simpleLoggerAdvisor
+				).build();
 		this.tools = tools;
-		this.toolCallingManager = toolCallingManager;
+		this.meterRegistry = meterRegistry;
+		this.serverParameters = loadServerParameters();
 
 		McpServerUtils.initMcpServerContainer(tools);
 	}
 
+	@PreDestroy
+	public void destroy() {
+
+		toolExecutor.shutdown();
+	}
+
 	public ToolCallResp chat(String prompt) {
 
+		return chat(chatClient, prompt, tools.getToolCallbacks(), null);
+	}
+
+	/**
+	 * Same as {@link #chat(String)}, but streams the final answer.
+	 */
+	public Flux<String> chatStream(String prompt) {
+
+		return Mono.fromCallable(() -> executeTurn(chatClient, prompt, tools.getToolCallbacks(), null))
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMapMany(turn -> answer(chatClient, turn));
+	}
+
+	private ToolCallResp chat(ChatClient chatClient, String prompt, ToolCallback[] toolCallbacks, String serverName) {
+
+		ToolTurn turn = executeTurn(chatClient, prompt, toolCallbacks, serverName);
+		if (turn.hasToolCalls()) {
+			long answerStart = System.nanoTime();
+			String llmCallResponse = chatClient.prompt().messages(turn.conversationHistory())
+					.call().content();
+			recordLlm("answer", answerStart);
+			turn.tcr().setToolResult(Objects.requireNonNullElse(llmCallResponse, ""));
+		}
+
+		logger.debug("End ToolCallResp: {}", turn.tcr());
+		return turn.tcr();
+	}
+
+	/**
+	 * Stream the final answer of a turn, chunks are sent as soon as the model emits them.
+	 */
+	private Flux<String> answer(ChatClient chatClient, ToolTurn turn) {
+
+		if (!turn.hasToolCalls()) {
+			return Flux.justOrEmpty(turn.tcr().getToolResult());
+		}
+
+		return Flux.defer(() -> {
+			long answerStart = System.nanoTime();
+			return chatClient.prompt().messages(turn.conversationHistory())
+					.stream().content()
+					.doOnComplete(() -> recordLlm("answer", answerStart));
+		});
+	}
+
+	/**
+	 * Let the llm plan the tool calls and run them, the final answer is left to the caller.
+	 */
+	private ToolTurn executeTurn(ChatClient chatClient, String prompt, ToolCallback[] toolCallbacks, String serverName) {
+
 		// manual run tools flag
 		ChatOptions chatOptions = ToolCallingChatOptions.builder()
-				.toolCallbacks(tools.getToolCallbacks())
+				.toolCallbacks(toolCallbacks)
 				.internalToolExecutionEnabled(false)
 				.build();
+		Prompt toolPrompt = new Prompt(prompt, chatOptions);
 
-		ChatResponse response = chatClient.prompt(new Prompt(prompt, chatOptions))
+		long planStart = System.nanoTime();
+		ChatResponse response = chatClient.prompt(toolPrompt)
 				.call().chatResponse();
+		long planCost = recordLlm("planning", planStart);
 
 		logger.debug("ChatResponse: {}", response);
-		assert response != null;
-		List<AssistantMessage.ToolCall> toolCalls = response.getResult().getOutput().getToolCalls();
+		if (Objects.isNull(response) || Objects.isNull(response.getResult())) {
+			throw new SAAAppException("LLM returned no response for the tool planning call");
+		}
+		AssistantMessage assistantMessage = response.getResult().getOutput();
+		List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
 		logger.debug("ToolCalls: {}", toolCalls);
-		String responseByLLm = response.getResult().getOutput().getText();
+		String responseByLLm = assistantMessage.getText();
 		logger.debug("Response by LLM: {}", responseByLLm);
 
 		// execute tools with no chat memory messages.
 		var tcr = ToolCallResp.TCR();
+		List<Message> conversationHistory = null;
 		if (!toolCalls.isEmpty()) {
 
 			tcr = ToolCallResp.startExecute(
@@ -120,90 +233,324 @@ public class SAAMcpService {
 					toolCalls.get(0).name(),
 					toolCalls.get(0).arguments()
 			);
-			tcr.setToolParameters(toolCalls.get(0).arguments());
 			logger.debug("Start ToolCallResp: {}", tcr);
-			ToolExecutionResult toolExecutionResult = null;
 
-			try {
-				toolExecutionResult = toolCallingManager.executeToolCalls(new Prompt(prompt, chatOptions), response);
-
-				tcr.setToolEndTime(LocalDateTime.now());
-			}
-			catch (Exception e) {
-
-				tcr.setStatus(ToolCallResp.ToolState.FAILURE);
-				tcr.setErrorMessage(e.getMessage());
-				tcr.setToolEndTime(LocalDateTime.now());
-				tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
-				logger.error("Error ToolCallResp: {}, msg: {}", tcr, e.getMessage());
-				// throw new RuntimeException("Tool execution failed, please check the logs for details.");
+			Map<String, ToolCallback> callbacksByName = new HashMap<>();
+			for (ToolCallback toolCallback : toolCallbacks) {
+				callbacksByName.put(toolCallback.getToolDefinition().name(), toolCallback);
 			}
 
-			String llmCallResponse = "";
-			if (Objects.nonNull(toolExecutionResult)) {
-//				ToolResponseMessage toolResponseMessage = (ToolResponseMessage) toolExecutionResult.conversationHistory()
-//						.get(toolExecutionResult.conversationHistory().size() - 1);
-//				llmCallResponse = toolResponseMessage.getResponses().get(0).responseData();
-				ChatResponse finalResponse = chatClient.prompt().messages(toolExecutionResult.conversationHistory())
-						.call().chatResponse();
-				if (finalResponse != null) {
-					llmCallResponse = finalResponse.getResult().getOutput().getText();
+			// independent tool calls run concurrently, the turn takes max(tool latency).
+			long toolStart = System.nanoTime();
+			List<ToolExecution> executions = executeToolCalls(toolCalls, callbacksByName, serverName);
+			List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(executions.size());
+			for (ToolExecution execution : executions) {
+				toolResponses.add(execution.response());
+				tcr.getToolTimings().add(execution.timing());
+				if (Objects.isNull(tcr.getErrorMessage()) && Objects.nonNull(execution.timing().getErrorMessage())) {
+					tcr.setErrorMessage(execution.timing().getErrorMessage());
 				}
-
-				StringBuilder sb = new StringBuilder();
-				toolExecutionResult.conversationHistory().stream()
-						.filter(message -> message instanceof ToolResponseMessage)
-						.forEach(message -> {
-							ToolResponseMessage toolResponseMessage = (ToolResponseMessage) message;
-							toolResponseMessage.getResponses().forEach(tooResponse -> {
-								sb.append(tooResponse.responseData());
-							});
-						});
-				tcr.setToolResponse(sb.toString());
 			}
+			tcr.setToolEndTime(LocalDateTime.now());
+			tcr.setToolCostTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - toolStart));
 
-			tcr.setStatus(ToolCallResp.ToolState.SUCCESS);
-			tcr.setToolResult(llmCallResponse);
-			tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
-			logger.debug("End ToolCallResp: {}", tcr);
+			conversationHistory = new ArrayList<>(toolPrompt.getInstructions());
+			conversationHistory.add(assistantMessage);
+			conversationHistory.add(new ToolResponseMessage(toolResponses, Map.of()));
+
+			StringBuilder sb = new StringBuilder();
+			toolResponses.forEach(toolResponse -> sb.append(toolResponse.responseData()));
+			tcr.setToolResponse(sb.toString());
+
+			boolean failed = tcr.getToolTimings().stream()
+					.anyMatch(timing -> timing.getStatus() == ToolCallResp.ToolState.FAILURE);
+			tcr.setStatus(failed ? ToolCallResp.ToolState.FAILURE : ToolCallResp.ToolState.SUCCESS);
 		}
 		else {
 			logger.debug("ToolCalls is empty, no tool execution needed.");
 			tcr.setToolResult(responseByLLm);
 		}
 
-		return tcr;
+		tcr.setLlmCostTime(TimeUnit.NANOSECONDS.toMillis(planCost));
+		return new ToolTurn(tcr, conversationHistory);
+	}
+
+	/**
+	 * Tool name to server name, rebuilt only when the registry snapshot has changed.
+	 */
+	private ToolServerIndex toolServerIndex() {
+
+		McpServerContainer.Snapshot snapshot = McpServerContainer.snapshot();
+		ToolServerIndex index = this.toolServerIndex;
+		if (index.version() == snapshot.version()) {
+			return index;
+		}
+
+		Map<String, String> servers = new HashMap<>();
+		snapshot.servers().forEach(server ->
+				server.getToolList().forEach(tool -> servers.put(tool.getName(), server.getName())));
+		index = new ToolServerIndex(snapshot.version(), Map.copyOf(servers));
+		this.toolServerIndex = index;
+		return index;
+	}
+
+	private List<ToolExecution> executeToolCalls(
+			List<AssistantMessage.ToolCall> toolCalls,
+			Map<String, ToolCallback> callbacksByName,
+			String serverName
+	) {
+
+		long start = System.nanoTime();
+		List<ToolMetric> metrics = new ArrayList<>(toolCalls.size());
+		List<Future<ToolExecution>> futures = new ArrayList<>(toolCalls.size());
+		for (AssistantMessage.ToolCall toolCall : toolCalls) {
+			// the tool name comes from the llm, only known tools become a tag value.
+			ToolCallback toolCallback = callbacksByName.get(toolCall.name());
+			String toolServer = Objects.nonNull(serverName) ? serverName
+					: toolServerIndex().servers().getOrDefault(toolCall.name(), UNKNOWN);
+			ToolMetric metric = new ToolMetric(toolServer, Objects.nonNull(toolCallback) ? toolCall.name() : UNKNOWN);
+			metrics.add(metric);
+			try {
+				futures.add(toolExecutor.submit(() -> executeToolCall(toolCall, toolCallback, metric)));
+			}
+			catch (TaskRejectedException e) {
+				futures.add(CompletableFuture.completedFuture(
+						failedExecution(toolCall, metric, "rejected", "Tool executor is busy", System.nanoTime() - start)));
+			}
+		}
+
+		// all calls start together, so one deadline gives every call the same timeout.
+		long deadline = start + toolTimeout.toNanos();
+		List<ToolExecution> executions = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < futures.size(); i++) {
+
+			AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+			ToolMetric metric = metrics.get(i);
+			Future<ToolExecution> future = futures.get(i);
+			try {
+				executions.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+			}
+			catch (TimeoutException e) {
+				future.cancel(true);
+				logger.warn("Tool {} of server {} timed out after {}", toolCall.name(), metric.serverName(), toolTimeout);
+				executions.add(failedExecution(toolCall, metric, "timeout",
+						"Tool call timed out after " + toolTimeout.toMillis() + "ms", System.nanoTime() - start));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				futures.forEach(f -> f.cancel(true));
+				throw new SAAAppException("Tool execution interrupted");
+			}
+			catch (ExecutionException e) {
+				executions.add(failedExecution(toolCall, metric, "failure",
+						e.getCause().getMessage(), System.nanoTime() - start));
+			}
+		}
+
+		return executions;
+	}
+
+	private ToolExecution executeToolCall(
+			AssistantMessage.ToolCall toolCall,
+			ToolCallback toolCallback,
+			ToolMetric metric
+	) {
+
+		long start = System.nanoTime();
+		String result;
+
+		try {
+			if (Objects.isNull(toolCallback)) {
+				throw new IllegalStateException("No ToolCallback found for tool name: " + toolCall.name());
+			}
+			result = toolCallback.call(toolCall.arguments());
+		}
+		catch (Exception e) {
+			// let the llm see the failure instead of aborting the whole turn.
+			logger.error("Execute tool {} of server {} failed, msg: {}", toolCall.name(), metric.serverName(), e.getMessage());
+			return failedExecution(toolCall, metric, "failure", e.getMessage(), System.nanoTime() - start);
+		}
+
+		long cost = System.nanoTime() - start;
+		recordTool(metric, "success", cost);
+
+		return new ToolExecution(
+				new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), result),
+				new ToolCallResp.ToolTiming(
+						metric.serverName(),
+						toolCall.name(),
+						toolCall.arguments(),
+						ToolCallResp.ToolState.SUCCESS,
+						TimeUnit.NANOSECONDS.toMillis(cost),
+						null
+				)
+		);
+	}
+
+	private ToolExecution failedExecution(
+			AssistantMessage.ToolCall toolCall,
+			ToolMetric metric,
+			String outcome,
+			String errorMessage,
+			long cost
+	) {
+
+		recordTool(metric, outcome, cost);
+
+		return new ToolExecution(
+				new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), errorMessage),
+				new ToolCallResp.ToolTiming(
+						metric.serverName(),
+						toolCall.name(),
+						toolCall.arguments(),
+						ToolCallResp.ToolState.FAILURE,
+						TimeUnit.NANOSECONDS.toMillis(cost),
+						errorMessage
+				)
+		);
+	}
+
+	private void recordTool(ToolMetric metric, String outcome, long cost) {
+
+		// a timed out call may still finish later, only its first outcome counts.
+		if (!metric.recorded().compareAndSet(false, true)) {
+			return;
+		}
+
+		Timer.builder("playground.mcp.tool.execution")
+				.description("MCP tool execution time")
+				.tag("server", metric.serverName())
+				.tag("tool", metric.toolName())
+				.tag("outcome", outcome)
+				.publishPercentileHistogram()
+				.register(meterRegistry)
+				.record(cost, TimeUnit.NANOSECONDS);
+	}
+
+	private long recordLlm(String phase, long start) {
+
+		long cost = System.nanoTime() - start;
+		Timer.builder("playground.mcp.llm")
+				.description("LLM call time of a MCP tool turn")
+				.tag("phase", phase)
+				.publishPercentileHistogram()
+				.register(meterRegistry)
+				.record(cost, TimeUnit.NANOSECONDS);
+
+		return cost;
+	}
+
+	public ToolCallResp run(String id, Map<String, String> envs, String prompt) {
+
+		Optional<RunTarget> target = runTarget(id, envs);
+		if (target.isEmpty()) {
+			return ToolCallResp.TCR();
+		}
+
+		String runMcpServerName = target.get().serverName();
+		try (McpStdioClientPool.Lease lease = clientPool.acquire(runMcpServerName, target.get().parameters())) {
+			return chat(runChatClient, prompt, lease.getToolCallbacks(), runMcpServerName);
+		}
+	}
+
+	/**
+	 * Same as {@link #run}, but only streams the final answer. The pooled client is
+	 * returned as soon as the tools have run, before the answer is generated.
+	 */
+	public Flux<String> runStream(String id, Map<String, String> envs, String prompt) {
+
+		return Mono.fromCallable(() -> {
+					RunTarget target = runTarget(id, envs)
+							.orElseThrow(() -> new SAAAppException("McpServer not found, id: " + id));
+					try (McpStdioClientPool.Lease lease = clientPool.acquire(target.serverName(), target.parameters())) {
+						return executeTurn(runChatClient, prompt, lease.getToolCallbacks(), target.serverName());
+					}
+				})
+				.subscribeOn(Schedulers.boundedElastic())
+				.flatMapMany(turn -> answer(runChatClient, turn));
 	}
 
-	public ToolCallResp run(String id, Map<String, String> envs, String prompt) throws IOException {
+	private Optional<RunTarget> runTarget(String id, Map<String, String> envs) {
 
 		Optional<McpServer> runMcpServer = McpServerContainer.getServerById(id);
 		if (runMcpServer.isEmpty()) {
 			logger.error("McpServer not found, id: {}", id);
-			return ToolCallResp.TCR();
+			return Optional.empty();
 		}
 
 		String runMcpServerName = runMcpServer.get().getName();
-		var mcpServerConfig = McpServerUtils.getMcpServerConfig();
-		McpStdioClientProperties.Parameters parameters = new McpStdioClientProperties.Parameters(
-				mcpServerConfig.getMcpServers().get(runMcpServerName).command(),
-				mcpServerConfig.getMcpServers().get(runMcpServerName).args(),
-				envs
-		);
+		McpStdioClientProperties.Parameters parameters = serverParameters.get(runMcpServerName);
+		if (Objects.isNull(parameters)) {
+			logger.error("McpServer config not found, name: {}", runMcpServerName);
+			return Optional.empty();
+		}
+
+		// user envs override the configured ones, each distinct env gets its own process.
+		Map<String, String> env = new HashMap<>();
+		if (Objects.nonNull(parameters.env())) {
+			// skip placeholders which are not resolved from system env.
+			parameters.env().forEach((key, value) -> {
+				if (Objects.nonNull(value) && !value.startsWith("${")) {
+					env.put(key, value);
+				}
+			});
+		}
+		if (Objects.nonNull(envs)) {
+			env.putAll(envs);
+		}
+
+		ServerParameters serverParams = ServerParameters.builder(parameters.command())
+				.args(parameters.args())
+				.env(env)
+				.build();
+
+		return Optional.of(new RunTarget(runMcpServerName, serverParams));
+	}
+
+	private static Map<String, McpStdioClientProperties.Parameters> loadServerParameters() throws IOException {
+
+		Map<String, McpStdioClientProperties.Parameters> result = new HashMap<>();
+		McpServerUtils.getMcpServerConfig().getMcpServers().forEach((name, parameters) -> {
+
+			List<String> args = Objects.isNull(parameters.args()) ? new ArrayList<>() : new ArrayList<>(parameters.args());
+			if (parameters.command().startsWith("java") && !args.isEmpty()) {
+				String oldMcpLibsPath = McpServerUtils.getLibsPath(args);
+				args.remove(oldMcpLibsPath);
+				args.add(getMcpLibsAbsPath(oldMcpLibsPath));
+			}
+
+			result.put(name, new McpStdioClientProperties.Parameters(parameters.command(), List.copyOf(args), parameters.env()));
+		});
+
+		return Map.copyOf(result);
+	}
+
+	private record ToolExecution(ToolResponseMessage.ToolResponse response, ToolCallResp.ToolTiming timing) {
+	}
+
+	private record ToolTurn(ToolCallResp tcr, List<Message> conversationHistory) {
 
-		if (parameters.command().startsWith("java")) {
-			String oldMcpLibsPath = McpServerUtils.getLibsPath(parameters.args());
-			String rewriteMcpLibsAbsPath = getMcpLibsAbsPath(McpServerUtils.getLibsPath(parameters.args()));
+		boolean hasToolCalls() {
+			return Objects.nonNull(conversationHistory);
+		}
+	}
 
-			parameters.args().remove(oldMcpLibsPath);
-			parameters.args().add(rewriteMcpLibsAbsPath);
+	/**
+	 * Bounded tag values of one tool call, and whether its outcome was recorded.
+	 */
+	private record ToolMetric(String serverName, String toolName, AtomicBoolean recorded) {
+
+		ToolMetric(String serverName, String toolName) {
+			this(serverName, toolName, new AtomicBoolean());
 		}
+	}
 
-		String mcpServerConfigJSON = objectMapper.writeValueAsString(mcpServerConfig);
-		mcpStdioClientProperties.setServersConfiguration(new ByteArrayResource(mcpServerConfigJSON.getBytes()));
+	private record RunTarget(String serverName, ServerParameters parameters) {
+	}
+
+	private record ToolServerIndex(long version, Map<String, String> servers) {
 
-		return chat(prompt);
+		static final ToolServerIndex EMPTY = new ToolServerIndex(-1, Map.of());
 	}
 
 }
-
@@ -16,6 +16,7 @@
 
 package com.alibaba.cloud.ai.application.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
@@ -114,7 +115,7 @@ public class SAAToolsService {
 				tcr.setStatus(ToolCallResp.ToolState.FAILURE);
 				tcr.setErrorMessage(e.getMessage());
 				tcr.setToolEndTime(LocalDateTime.now());
-				tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
+				tcr.setToolCostTime(Duration.between(tcr.getToolStartTime(), tcr.getToolEndTime()).toMillis());
 				logger.error("Error ToolCallResp: {}, msg: {}", tcr, e.getMessage());
 				// throw new RuntimeException("Tool execution failed, please check the logs for details.");
 			}
@@ -130,7 +131,7 @@ public class SAAToolsService {
 
 			tcr.setStatus(ToolCallResp.ToolState.SUCCESS);
 			tcr.setToolResult(llmCallResponse);
-			tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
+			tcr.setToolCostTime(Duration.between(tcr.getToolStartTime(), tcr.getToolEndTime()).toMillis());
 			logger.debug("End ToolCallResp: {}", tcr);
 		}
 		else {
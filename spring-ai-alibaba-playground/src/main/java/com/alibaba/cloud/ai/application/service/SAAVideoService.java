@@ -19,9 +19,11 @@ package com.alibaba.cloud.ai.application.service;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import com.alibaba.cloud.ai.dashscope.video.VideoModel;
 import com.alibaba.cloud.ai.dashscope.video.VideoPrompt;
-import org.bytedeco.javacv.FFmpegFrameGrabber;
-import org.bytedeco.javacv.Frame;
-import org.bytedeco.javacv.Java2DFrameConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
@@ -29,23 +31,18 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.content.Media;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 import static com.alibaba.cloud.ai.dashscope.api.DashScopeApi.ChatModel.QWEN_VL_MAX;
 
@@ -57,16 +54,56 @@ public class SAAVideoService  {
 
     private final VideoModel videoModel;
 
-    private static final String TEMP_IMAGE_DIR = "temp-frames";
+    private static final Logger logger = LoggerFactory.getLogger(SAAVideoService.class);
 
     private final ChatClient daschScopeChatClient;
 
+    private final VideoFrameExtractor frameExtractor;
+
+    /**
+     * uniform (默认): 均匀抽取 frameBudget 帧, adaptive: 按镜头切换抽帧
+     */
+    private final boolean adaptiveSampling;
+
+    private final int frameBudget;
+
+    private final double sceneThreshold;
+
+    private final double analyzeFps;
+
+    private final Counter decodedFrames;
+
+    private final Counter analyzedFrames;
+
+    private final Counter keptFrames;
+
+    private final DistributionSummary keptPerAnalysis;
+
     public SAAVideoService(
             VideoModel videoModel,
-            @Qualifier("dashscopeChatModel") ChatModel chatModel
+            @Qualifier("dashscopeChatModel") ChatModel chatModel,
+            MeterRegistry meterRegistry,
+            @Value("${spring.ai.alibaba.playground.video.frame-width:768}") int frameWidth,
+            @Value("${spring.ai.alibaba.playground.video.jpeg-quality:0.8}") float jpegQuality,
+            @Value("${spring.ai.alibaba.playground.video.sampling:uniform}") String sampling,
+            @Value("${spring.ai.alibaba.playground.video.frame-budget:10}") int frameBudget,
+            @Value("${spring.ai.alibaba.playground.video.scene-threshold:0.25}") double sceneThreshold,
+            @Value("${spring.ai.alibaba.playground.video.analyze-fps:2}") double analyzeFps
     ) {
 
         this.videoModel = videoModel;
+        this.frameExtractor = new VideoFrameExtractor(frameWidth, jpegQuality);
+        this.adaptiveSampling = "adaptive".equalsIgnoreCase(sampling);
+        this.frameBudget = frameBudget;
+        this.sceneThreshold = sceneThreshold;
+        this.analyzeFps = analyzeFps;
+
+        this.decodedFrames = frameCounter(meterRegistry, "decoded");
+        this.analyzedFrames = frameCounter(meterRegistry, "analyzed");
+        this.keptFrames = frameCounter(meterRegistry, "kept");
+        this.keptPerAnalysis = DistributionSummary.builder("playground.video.frames.per.analysis")
+                .description("Frames sent to the multimodal model per video analysis")
+                .register(meterRegistry);
         this.daschScopeChatClient = ChatClient
                 .builder(chatModel)
                 .build();
@@ -84,20 +121,26 @@ public class SAAVideoService  {
             throw new IllegalArgumentException("不支持的视频格式");
         }
 
-        // 2. 保存视频到临时文件
-        Path tempVideoPath = Paths.get(System.getProperty("java.io.tmpdir"), videoFile.getOriginalFilename());
-        videoFile.transferTo(tempVideoPath.toFile());
+        // 2. 保存视频到唯一的临时文件, mp4 的 moov 可能在文件尾部, 需要可 seek 的输入
+        Path tempVideoPath = Files.createTempFile("saa-video-", ".video");
+        List<byte[]> frames;
+        try {
+            videoFile.transferTo(tempVideoPath);
 
-        // 3. 从视频中提取10帧
-        List<File> frames = extractFrames(tempVideoPath.toFile(), 10);
+            // 3. 单次前向解码从视频中提取帧, 帧在内存中编码为 JPEG
+            frames = extractFrames(tempVideoPath);
+        }
+        finally {
+            Files.deleteIfExists(tempVideoPath);
+        }
 
         // 4. 准备AI分析所需的媒体列表
         List<Media> mediaList = new ArrayList<>();
-        for (File frame : frames) {
-            mediaList.add(new Media(
-                    MimeTypeUtils.IMAGE_PNG,
-                    new FileSystemResource(frame)
-            ));
+        for (byte[] frame : frames) {
+            mediaList.add(Media.builder()
+                    .mimeType(MimeTypeUtils.IMAGE_JPEG)
+                    .data(frame)
+                    .build());
         }
 
         // 5. 创建包含问题和帧图片的用户消息
@@ -128,61 +171,30 @@ public class SAAVideoService  {
             }
         }
 
-        // 8. 清理临时文件
-        cleanUpFiles(frames);
-        Files.deleteIfExists(tempVideoPath);
-
         return result.toString();
     }
 
     /**
-     * 从视频中提取指定数量的帧
-     * @param videoFile 视频文件
-     * @param frameCount 要提取的帧数
-     * @return 提取的帧图片文件列表
+     * 按配置的采样方式抽帧, 自适应采样时记录解码与保留的帧数
      */
-    private List<File> extractFrames(File videoFile, int frameCount) throws IOException {
-        List<File> frames = new ArrayList<>();
-        FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFile);
-        grabber.start();
-
-        try {
-            // 创建临时目录（如果不存在）
-            Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"), TEMP_IMAGE_DIR);
-            if (!Files.exists(tempDir)) {
-                Files.createDirectories(tempDir);
-            }
+    private List<byte[]> extractFrames(Path videoPath) throws IOException {
 
-            int totalFrames = grabber.getLengthInFrames();
-            int step = totalFrames / frameCount; // 计算帧间隔
-
-            Java2DFrameConverter converter = new Java2DFrameConverter();
-            for (int i = 0; i < frameCount; i++) {
-                int frameNumber = i * step; // 计算当前帧位置
-                grabber.setFrameNumber(frameNumber);
-                Frame frame = grabber.grabImage();
-                BufferedImage image = converter.convert(frame);
-
-                // 保存帧为PNG图片
-                File outputFile = tempDir.resolve(UUID.randomUUID() + ".png").toFile();
-                ImageIO.write(image, "png", outputFile);
-                frames.add(outputFile);
-            }
-        } finally {
-            grabber.stop();
+        if (!adaptiveSampling) {
+            List<byte[]> frames = frameExtractor.extract(videoPath, frameBudget);
+            keptFrames.increment(frames.size());
+            keptPerAnalysis.record(frames.size());
+            return frames;
         }
 
-        return frames;
-    }
+        VideoFrameExtractor.Result result =
+                frameExtractor.extractAdaptive(videoPath, frameBudget, sceneThreshold, analyzeFps);
+        decodedFrames.increment(result.decoded());
+        analyzedFrames.increment(result.analyzed());
+        keptFrames.increment(result.frames().size());
+        keptPerAnalysis.record(result.frames().size());
+        logger.debug("Adaptive sampling kept {} of {} decoded frames", result.frames().size(), result.decoded());
 
-    /**
-     * 清理临时文件
-     * @param files 要删除的文件列表
-     */
-    private void cleanUpFiles(List<File> files) {
-        for (File file : files) {
-            file.delete();
-        }
+        return result.frames();
     }
 
     /**
@@ -197,6 +209,14 @@ public class SAAVideoService  {
                         contentType.startsWith("video/quicktime"));
     }
 
+    private static Counter frameCounter(MeterRegistry meterRegistry, String state) {
+
+        return Counter.builder("playground.video.frames")
+                .description("Video frames by sampling state")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
     public String genVideo(String prompt) {
 
         if (Objects.isNull(prompt)) {
@@ -22,9 +22,11 @@ import com.alibaba.cloud.ai.application.modulerag.WebSearchRetriever;
 import com.alibaba.cloud.ai.application.modulerag.core.IQSSearchEngine;
 import com.alibaba.cloud.ai.application.modulerag.data.DataClean;
 import com.alibaba.cloud.ai.application.modulerag.join.ConcatenationDocumentJoiner;
+import com.alibaba.cloud.ai.application.modulerag.postretrieval.DashScopeDocumentRanker;
 import com.alibaba.cloud.ai.application.modulerag.prompt.CustomContextQueryAugmenter;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
+import com.alibaba.cloud.ai.model.RerankModel;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.model.ChatModel;
@@ -33,9 +35,17 @@ import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
 import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
 import org.springframework.ai.rag.preretrieval.query.transformation.QueryTransformer;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
@@ -60,6 +70,23 @@ public class SAAWebSearchService implements ISAAWebSearchService {
 
     private final ReasoningContentAdvisor reasoningContentAdvisor;
 
+    /**
+     * Runs the expanded queries concurrently, so the retrieval takes as long as the slowest single
+     * search instead of the sum of all searches. Not exposed as a bean to keep the auto-configured
+     * applicationTaskExecutor in place.
+     */
+    private final ThreadPoolTaskExecutor webSearchTaskExecutor;
+
+    private final ConcatenationDocumentJoiner documentJoiner;
+
+    private final DashScopeDocumentRanker documentRanker;
+
+    /**
+     * Deadline of all searches of one request, the per-search timeout alone allows one
+     * request to take a multiple of it when the searches run in the caller thread.
+     */
+    private final Duration retrievalTimeout;
+
     public SAAWebSearchService(
             DataClean dataCleaner,
             QueryExpander queryExpander,
@@ -67,13 +94,32 @@ public class SAAWebSearchService implements ISAAWebSearchService {
             QueryTransformer queryTransformer,
             SimpleLoggerAdvisor simpleLoggerAdvisor,
             @Qualifier("dashscopeChatModel") ChatModel chatModel,
-            @Qualifier("queryArgumentPromptTemplate") PromptTemplate queryArgumentPromptTemplate
+            @Qualifier("queryArgumentPromptTemplate") PromptTemplate queryArgumentPromptTemplate,
+            @Value("${spring.ai.alibaba.playground.web-search.top-k:10}") int topK,
+            @Value("${spring.ai.alibaba.playground.web-search.reciprocal-rank-fusion:false}") boolean reciprocalRankFusion,
+            @Value("${spring.ai.alibaba.playground.web-search.rerank-top-n:5}") int rerankTopN,
+            @Value("${spring.ai.alibaba.playground.web-search.retrieval-timeout:15s}") Duration retrievalTimeout,
+            RerankModel rerankModel
     ) {
 
         this.dataCleaner = dataCleaner;
         this.queryTransformer = queryTransformer;
         this.queryExpander = queryExpander;
         this.queryArgumentPromptTemplate = queryArgumentPromptTemplate;
+        this.documentJoiner = new ConcatenationDocumentJoiner(topK, reciprocalRankFusion);
+        this.retrievalTimeout = retrievalTimeout;
+        this.documentRanker = DashScopeDocumentRanker.builder()
+                .rerankModel(rerankModel)
+                .topN(rerankTopN)
+                .build();
+        this.webSearchTaskExecutor = new ThreadPoolTaskExecutor();
+        this.webSearchTaskExecutor.setThreadNamePrefix("web-search-");
+        this.webSearchTaskExecutor.setCorePoolSize(16);
+        this.webSearchTaskExecutor.setMaxPoolSize(64);
+        // no queue, grow the pool for fan-out and let the caller run the search when it is full.
+        this.webSearchTaskExecutor.setQueueCapacity(0);
+        this.webSearchTaskExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.webSearchTaskExecutor.initialize();
 
         // reasoning content for DeepSeek-r1 is integrated into the output
         this.reasoningContentAdvisor = new ReasoningContentAdvisor(1);
@@ -94,6 +140,7 @@ public class SAAWebSearchService implements ISAAWebSearchService {
                 .searchEngine(searchEngine)
                 .dataCleaner(dataCleaner)
                 .maxResults(2)
+                .searchTimeout(Duration.ofSeconds(10))
                 .build();
     }
 
@@ -101,15 +148,24 @@ public class SAAWebSearchService implements ISAAWebSearchService {
     @Override
     public Flux<ChatResponseDTO> chat(String prompt) {
 
-        return chatClient.prompt()
+        // the deadline starts when the client subscribes, not when the request is built.
+        return Flux.defer(() -> chatClient.prompt()
                 .advisors(
                         createRetrievalAugmentationAdvisor(),
                         reasoningContentAdvisor,
                         simpleLoggerAdvisor
+                ).advisors(advisor -> advisor
+                        .param(WebSearchRetriever.RETRIEVAL_DEADLINE, Instant.now().plus(retrievalTimeout))
                 ).user(prompt)
                 .stream().chatResponse().map(chatResponse
                         -> new ChatResponseDTO(chatResponse.getResult().getOutput().getText())
-                );
+                ));
+    }
+
+    @PreDestroy
+    public void destroy() {
+
+        webSearchTaskExecutor.shutdown();
     }
 
     private RetrievalAugmentationAdvisor createRetrievalAugmentationAdvisor() {
@@ -123,7 +179,9 @@ public class SAAWebSearchService implements ISAAWebSearchService {
                                 null,
                                 true)
                 ).queryExpander(queryExpander)
-                .documentJoiner(new ConcatenationDocumentJoiner())
+                .documentJoiner(documentJoiner)
+                .documentPostProcessors(documentRanker)
+                .taskExecutor(webSearchTaskExecutor)
                 .build();
     }
 
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 单次前向解码抽帧, 帧直接在内存中编码为 JPEG, 不落盘.
+ *
+ * <p>均匀采样: 先只解码关键帧 (开销最小), 关键帧过于稀疏时再顺序解码一遍,
+ * 两种方式都不会对每一帧做 seek.
+ *
+ * <p>自适应采样: 按 analyzeFps 计算关键帧的亮度直方图, 与上一张保留帧差异超过阈值
+ * (镜头切换) 才保留, 超出帧预算时丢弃差异最小的帧. 静态视频只会保留很少的帧.
+ * 关键帧不足时才顺序解码每一帧.
+ */
+class VideoFrameExtractor {
+
+    private final int maxWidth;
+
+    private final float jpegQuality;
+
+    private static final int HISTOGRAM_BINS = 32;
+
+    // 每个方向的采样点数, 直方图只基于 64 * 64 个像素计算
+    private static final int HISTOGRAM_GRID = 64;
+
+    VideoFrameExtractor(int maxWidth, float jpegQuality) {
+        this.maxWidth = maxWidth;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * 从视频中均匀抽取指定数量的帧
+     * @param videoFile 视频文件
+     * @param frameCount 要提取的帧数
+     * @return JPEG 编码后的帧
+     */
+    List<byte[]> extract(Path videoFile, int frameCount) throws IOException {
+
+        Java2DFrameConverter converter = new Java2DFrameConverter();
+        // close 同时会 stop grabber, 异常时也能释放 native 资源
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFile.toFile())) {
+
+            grabber.start();
+            long duration = grabber.getLengthInTime();
+
+            List<byte[]> frames = grabForward(grabber, converter, duration, frameCount, true);
+            if (frames.size() < frameCount) {
+                // 关键帧间隔过大, 回到开头顺序解码
+                grabber.setTimestamp(0);
+                frames = grabForward(grabber, converter, duration, frameCount, false);
+            }
+
+            return frames;
+        }
+        catch (FFmpegFrameGrabber.Exception e) {
+            throw new IOException("Extract video frames failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 基于镜头切换自适应抽帧, 只分析关键帧, 关键帧不足两帧时才回到开头顺序解码
+     * @param videoFile 视频文件
+     * @param frameBudget 最多保留的帧数
+     * @param threshold 直方图差异阈值, 取值 0 ~ 1
+     * @param analyzeFps 每秒最多分析的帧数
+     * @return 保留的帧以及解码统计
+     */
+    Result extractAdaptive(Path videoFile, int frameBudget, double threshold, double analyzeFps) throws IOException {
+
+        Java2DFrameConverter converter = new Java2DFrameConverter();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFile.toFile())) {
+
+            grabber.start();
+
+            // 编码器通常在镜头切换处插入关键帧, 只解码关键帧即可发现大部分切换
+            Result result = grabAdaptive(grabber, converter, frameBudget, threshold, analyzeFps, true);
+            if (result.analyzed() < 2) {
+                grabber.setTimestamp(0);
+                Result decoded = grabAdaptive(grabber, converter, frameBudget, threshold, analyzeFps, false);
+                result = new Result(decoded.frames(), result.decoded() + decoded.decoded(), decoded.analyzed());
+            }
+
+            return result;
+        }
+        catch (FFmpegFrameGrabber.Exception e) {
+            throw new IOException("Extract video frames failed: " + e.getMessage(), e);
+        }
+    }
+
+    private Result grabAdaptive(
+            FFmpegFrameGrabber grabber,
+            Java2DFrameConverter converter,
+            int frameBudget,
+            double threshold,
+            double analyzeFps,
+            boolean keyFramesOnly
+    ) throws IOException {
+
+        long analyzeInterval = (long) (1_000_000 / analyzeFps);
+
+        // 按差异分数排序的最小堆, 超出预算时先丢弃变化最小的帧
+        PriorityQueue<KeptFrame> kept = new PriorityQueue<>(Comparator.comparingDouble(KeptFrame::score));
+        float[] lastKept = null;
+        long nextAnalyze = 0;
+        int decoded = 0;
+        int analyzed = 0;
+
+        Frame frame;
+        while ((frame = keyFramesOnly ? grabber.grabKeyFrame() : grabber.grabImage()) != null) {
+
+            decoded++;
+            if (frame.image == null || frame.timestamp < nextAnalyze) {
+                continue;
+            }
+            nextAnalyze = frame.timestamp + analyzeInterval;
+            analyzed++;
+
+            float[] histogram = histogram(frame, converter);
+            // 第一帧总是保留
+            double score = lastKept == null ? Double.MAX_VALUE : distance(lastKept, histogram);
+            if (score < threshold) {
+                continue;
+            }
+
+            lastKept = histogram;
+            kept.add(new KeptFrame(frame.timestamp, score, encode(converter.convert(frame))));
+            if (kept.size() > frameBudget) {
+                kept.poll();
+            }
+        }
+
+        List<byte[]> frames = kept.stream()
+                .sorted(Comparator.comparingLong(KeptFrame::timestamp))
+                .map(KeptFrame::jpeg)
+                .toList();
+
+        return new Result(frames, decoded, analyzed);
+    }
+
+    /**
+     * 归一化的亮度直方图, 8 位 BGR 帧直接读 native buffer, 其他格式退化为转换后采样
+     */
+    private float[] histogram(Frame frame, Java2DFrameConverter converter) {
+
+        float[] histogram = new float[HISTOGRAM_BINS];
+        int width = frame.imageWidth;
+        int height = frame.imageHeight;
+        int stepX = Math.max(1, width / HISTOGRAM_GRID);
+        int stepY = Math.max(1, height / HISTOGRAM_GRID);
+        int samples = 0;
+
+        if (frame.imageDepth == Frame.DEPTH_UBYTE && frame.imageChannels >= 3
+                && frame.image[0] instanceof ByteBuffer buffer) {
+            for (int y = 0; y < height; y += stepY) {
+                int row = y * frame.imageStride;
+                for (int x = 0; x < width; x += stepX) {
+                    int offset = row + x * frame.imageChannels;
+                    int b = buffer.get(offset) & 0xFF;
+                    int g = buffer.get(offset + 1) & 0xFF;
+                    int r = buffer.get(offset + 2) & 0xFF;
+                    histogram[luma(r, g, b) * HISTOGRAM_BINS / 256]++;
+                    samples++;
+                }
+            }
+        }
+        else {
+            BufferedImage image = converter.convert(frame);
+            for (int y = 0; y < image.getHeight(); y += stepY) {
+                for (int x = 0; x < image.getWidth(); x += stepX) {
+                    int rgb = image.getRGB(x, y);
+                    histogram[luma((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF) * HISTOGRAM_BINS / 256]++;
+                    samples++;
+                }
+            }
+        }
+
+        for (int i = 0; i < HISTOGRAM_BINS; i++) {
+            histogram[i] /= Math.max(1, samples);
+        }
+
+        return histogram;
+    }
+
+    private static int luma(int r, int g, int b) {
+        return (r * 299 + g * 587 + b * 114) / 1000;
+    }
+
+    /**
+     * 两个归一化直方图的总变差距离, 0 表示相同, 1 表示完全不同
+     */
+    private static double distance(float[] a, float[] b) {
+
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += Math.abs(a[i] - b[i]);
+        }
+
+        return sum / 2;
+    }
+
+    private List<byte[]> grabForward(
+            FFmpegFrameGrabber grabber,
+            Java2DFrameConverter converter,
+            long duration,
+            int frameCount,
+            boolean keyFramesOnly
+    ) throws IOException {
+
+        List<byte[]> frames = new ArrayList<>(frameCount);
+        // 采样点取每段的中点, 时长未知时按到达顺序取帧
+        long segment = duration > 0 ? duration / frameCount : 0;
+        long nextTimestamp = segment / 2;
+
+        Frame frame;
+        while (frames.size() < frameCount
+                && (frame = keyFramesOnly ? grabber.grabKeyFrame() : grabber.grabImage()) != null) {
+
+            if (frame.image == null || frame.timestamp < nextTimestamp) {
+                continue;
+            }
+
+            frames.add(encode(converter.convert(frame)));
+            // 跳过已经被当前帧覆盖的采样点
+            while (nextTimestamp <= frame.timestamp) {
+                nextTimestamp += Math.max(segment, 1);
+            }
+        }
+
+        return frames;
+    }
+
+    byte[] encode(BufferedImage image) throws IOException {
+
+        BufferedImage scaled = scale(image);
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        }
+        finally {
+            writer.dispose();
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * 按最大宽度等比缩放, 同时转为 JPEG 支持的 RGB
+     */
+    private BufferedImage scale(BufferedImage image) {
+
+        int width = Math.min(image.getWidth(), maxWidth);
+        int height = Math.max(1, Math.round(image.getHeight() * (width / (float) image.getWidth())));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        }
+        finally {
+            graphics.dispose();
+        }
+
+        return scaled;
+    }
+
+    private record KeptFrame(long timestamp, double score, byte[] jpeg) {
+    }
+
+    /**
+     * 自适应抽帧结果
+     * @param frames JPEG 编码后的保留帧, 按时间排序
+     * @param decoded 解码的帧数
+     * @param analyzed 计算过直方图的帧数
+     */
+    record Result(List<byte[]> frames, int decoded, int analyzed) {
+    }
+
+}
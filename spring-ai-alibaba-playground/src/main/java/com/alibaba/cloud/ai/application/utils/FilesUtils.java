@@ -24,6 +24,8 @@ import com.alibaba.cloud.ai.application.exception.SAAAppException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -118,4 +120,53 @@ public final class FilesUtils {
 		return filePath;
 	}
 
+	/**
+	 * Detect image mime type by the magic bytes of the content,
+	 * fallback to the declared content type and then image/png.
+	 */
+	public static MimeType detectImageMimeType(byte[] bytes, String declaredContentType) {
+
+		if (startsWith(bytes, 0, 0x89, 'P', 'N', 'G')) {
+			return MimeTypeUtils.IMAGE_PNG;
+		}
+		if (startsWith(bytes, 0, 0xFF, 0xD8, 0xFF)) {
+			return MimeTypeUtils.IMAGE_JPEG;
+		}
+		if (startsWith(bytes, 0, 'G', 'I', 'F', '8')) {
+			return MimeTypeUtils.IMAGE_GIF;
+		}
+		if (startsWith(bytes, 0, 'R', 'I', 'F', 'F') && startsWith(bytes, 8, 'W', 'E', 'B', 'P')) {
+			return MimeType.valueOf("image/webp");
+		}
+		if (startsWith(bytes, 0, 'B', 'M')) {
+			return MimeType.valueOf("image/bmp");
+		}
+
+		if (declaredContentType != null && declaredContentType.startsWith("image/")) {
+			try {
+				return MimeTypeUtils.parseMimeType(declaredContentType);
+			}
+			catch (IllegalArgumentException e) {
+				logger.debug("Invalid image content type: {}", declaredContentType);
+			}
+		}
+
+		return MimeTypeUtils.IMAGE_PNG;
+	}
+
+	private static boolean startsWith(byte[] bytes, int offset, int... signature) {
+
+		if (bytes == null || bytes.length < offset + signature.length) {
+			return false;
+		}
+
+		for (int i = 0; i < signature.length; i++) {
+			if ((bytes[offset + i] & 0xFF) != signature[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 }
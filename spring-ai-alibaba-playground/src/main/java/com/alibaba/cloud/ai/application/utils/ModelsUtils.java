@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.application.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -41,14 +42,21 @@ public final class ModelsUtils {
 
 	private static final String DESC = "desc";
 
+	private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
 	private ModelsUtils() {
 	}
 
 	public static Set<Map<String, String>> getDashScopeModels() throws IOException {
 
-		ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-		InputStream resourceAsStream = ModelsUtils.class.getClassLoader().getResourceAsStream(MODELS_FILE_PATH);
-		DashScopeModels models = mapper.readValue(resourceAsStream, DashScopeModels.class);
+		try (InputStream resourceAsStream = ModelsUtils.class.getClassLoader().getResourceAsStream(MODELS_FILE_PATH)) {
+			return getDashScopeModels(resourceAsStream);
+		}
+	}
+
+	public static Set<Map<String, String>> getDashScopeModels(InputStream inputStream) throws IOException {
+
+		DashScopeModels models = YAML_MAPPER.readValue(inputStream, DashScopeModels.class);
 
 		Set<Map<String, String>> resultSet = new HashSet<>();
 		for (DashScopeModel model : models.getDashScope()) {
@@ -61,4 +69,12 @@ public final class ModelsUtils {
 		return resultSet;
 	}
 
+	/**
+	 * Location of the models file, a plain file when running from an exploded classpath.
+	 */
+	public static URL getDashScopeModelsResource() {
+
+		return ModelsUtils.class.getClassLoader().getResource(MODELS_FILE_PATH);
+	}
+
 }
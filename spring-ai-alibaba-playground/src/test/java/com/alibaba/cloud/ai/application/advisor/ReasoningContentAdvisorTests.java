@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.advisor;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Feeds recorded deepseek-r1 style chunk sequences through the stream advisor and checks
+ * where the think markers land.
+ */
+class ReasoningContentAdvisorTests {
+
+	private static final int REASONING_CHUNKS = 1_000;
+
+	private static final int ANSWER_CHUNKS = 4_000;
+
+	private final ReasoningContentAdvisor advisor = new ReasoningContentAdvisor(0);
+
+	@Test
+	void thinkBlockOpensAndClosesOnceAcrossChunks() {
+		List<ChatClientResponse> chunks = List.of(reasoning("let me "), reasoning("think"), answer(""),
+				answer("the answer"), answer(" is 42"));
+
+		List<ChatClientResponse> out = stream(chunks);
+
+		assertThat(texts(out)).containsExactly("<think>let me ", "think", "", "</think>the answer", " is 42");
+		// answer chunks after the close marker are passed through untouched.
+		assertThat(out.get(4)).isSameAs(chunks.get(4));
+		assertThat(String.join("", texts(out))).isEqualTo("<think>let me think</think>the answer is 42");
+	}
+
+	@Test
+	void chunkCarryingReasoningAndAnswerClosesTheBlock() {
+		List<ChatClientResponse> out = stream(List.of(reasoning("hmm"), chunk("done", "ok"), answer("!")));
+
+		assertThat(String.join("", texts(out))).isEqualTo("<think>hmmdone</think>ok!");
+	}
+
+	@Test
+	void streamCompletingWhileThinkingClosesTheBlock() {
+		List<ChatClientResponse> out = stream(List.of(reasoning("still "), reasoning("thinking")));
+
+		assertThat(texts(out)).containsExactly("<think>still ", "thinking", "</think>");
+	}
+
+	@Test
+	void chunksWithoutChatResponseKeepTheThinkPhase() {
+		ChatClientResponse empty = ChatClientResponse.builder().context(Map.of()).build();
+
+		List<ChatClientResponse> out = stream(List.of(reasoning("a"), empty, reasoning("b"), answer("c")));
+
+		assertThat(out.get(1)).isSameAs(empty);
+		assertThat(out.stream().filter(response -> response.chatResponse() != null).map(ReasoningContentAdvisorTests::text))
+			.containsExactly("<think>a", "b", "</think>c");
+	}
+
+	@Test
+	void streamWithoutReasoningIsPassedThrough() {
+		List<ChatClientResponse> chunks = List.of(answer("plain"), answer(" answer"));
+
+		List<ChatClientResponse> out = stream(chunks);
+
+		assertThat(out).hasSize(2);
+		assertThat(out.get(0)).isSameAs(chunks.get(0));
+		assertThat(out.get(1)).isSameAs(chunks.get(1));
+	}
+
+	/**
+	 * Allocation over a 5k chunk stream compared with rebuilding the response for every
+	 * chunk, which is what the advisor did before it tracked the think phase.
+	 */
+	@Test
+	void answerChunksAllocateLessThanRebuildingEveryChunk() {
+		List<ChatClientResponse> chunks = new ArrayList<>();
+		for (int i = 0; i < REASONING_CHUNKS; i++) {
+			chunks.add(reasoning("r" + i));
+		}
+		for (int i = 0; i < ANSWER_CHUNKS; i++) {
+			chunks.add(answer("a" + i));
+		}
+
+		StreamAdvisorChain chain = chain(chunks);
+
+		// warm up both paths before measuring.
+		for (int i = 0; i < 5; i++) {
+			stream(chain);
+			rebuildEveryChunk(chunks);
+		}
+
+		long advisorBytes = allocatedBytes(() -> stream(chain));
+		long rebuildBytes = allocatedBytes(() -> rebuildEveryChunk(chunks));
+
+		Set<ChatClientResponse> recorded = Collections.newSetFromMap(new IdentityHashMap<>());
+		recorded.addAll(chunks);
+		long passedThrough = stream(chain).stream().filter(recorded::contains).count();
+		assertThat(passedThrough).isEqualTo(ANSWER_CHUNKS - 1);
+		assertThat(advisorBytes).as("advisor %d bytes, rebuild every chunk %d bytes", advisorBytes, rebuildBytes)
+			.isLessThan(rebuildBytes / 2);
+	}
+
+	private List<ChatClientResponse> stream(List<ChatClientResponse> chunks) {
+		return stream(chain(chunks));
+	}
+
+	private List<ChatClientResponse> stream(StreamAdvisorChain chain) {
+		return advisor.adviseStream(ChatClientRequest.builder().prompt(new Prompt("question")).build(), chain)
+			.collectList()
+			.block();
+	}
+
+	private static StreamAdvisorChain chain(List<ChatClientResponse> chunks) {
+		StreamAdvisorChain chain = mock(StreamAdvisorChain.class);
+		when(chain.nextStream(any())).thenAnswer(invocation -> Flux.fromIterable(chunks));
+		return chain;
+	}
+
+	private static List<ChatClientResponse> rebuildEveryChunk(List<ChatClientResponse> chunks) {
+		return Flux.fromIterable(chunks).map(chatClientResponse -> {
+			ChatResponse resp = chatClientResponse.chatResponse();
+			String reasoningContent = String
+				.valueOf(resp.getResults().get(0).getOutput().getMetadata().get("reasoningContent"));
+			List<Generation> generations = resp.getResults().stream().map(generation -> {
+				AssistantMessage output = generation.getOutput();
+				return new Generation(new AssistantMessage(String.format("<think>%s</think>", reasoningContent)
+						+ output.getText(), output.getMetadata(), output.getToolCalls(), output.getMedia()),
+						generation.getMetadata());
+			}).toList();
+			return ChatClientResponse.builder()
+				.context(chatClientResponse.context())
+				.chatResponse(ChatResponse.builder().from(resp).generations(generations).build())
+				.build();
+		}).collectList().block();
+	}
+
+	private static long allocatedBytes(Runnable runnable) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		runnable.run();
+		return threads.getThreadAllocatedBytes(threadId) - before;
+	}
+
+	private static ChatClientResponse reasoning(String reasoningContent) {
+		return chunk(reasoningContent, "");
+	}
+
+	private static ChatClientResponse answer(String text) {
+		return chunk(null, text);
+	}
+
+	private static ChatClientResponse chunk(String reasoningContent, String text) {
+		Map<String, Object> metadata = reasoningContent != null ? Map.of("reasoningContent", reasoningContent)
+				: Map.of();
+		ChatResponse chatResponse = new ChatResponse(List.of(new Generation(new AssistantMessage(text, metadata))));
+		return ChatClientResponse.builder().context(Map.of()).chatResponse(chatResponse).build();
+	}
+
+	private static List<String> texts(List<ChatClientResponse> responses) {
+		return responses.stream().map(ReasoningContentAdvisorTests::text).collect(Collectors.toList());
+	}
+
+	private static String text(ChatClientResponse response) {
+		return response.chatResponse().getResult().getOutput().getText();
+	}
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the pool with mocked clients instead of real processes, to check reuse, the
+ * max-size limit and that eviction never closes a leased client.
+ */
+class McpStdioClientPoolTests {
+
+	private final Queue<McpSyncClient> spawned = new ConcurrentLinkedQueue<>();
+
+	private McpStdioClientPool pool;
+
+	@AfterEach
+	void tearDown() {
+		if (pool != null) {
+			pool.destroy();
+		}
+	}
+
+	@Test
+	void reusesClientForTheSameServerAndEnv() {
+		pool = pool(8, Duration.ofMinutes(5));
+
+		pool.acquire("fs", parameters(Map.of("TOKEN", "a"))).close();
+		pool.acquire("fs", parameters(Map.of("TOKEN", "a"))).close();
+		assertThat(spawned).hasSize(1);
+
+		pool.acquire("fs", parameters(Map.of("TOKEN", "b"))).close();
+		assertThat(spawned).hasSize(2);
+	}
+
+	@Test
+	void concurrentAcquiresForOneKeySpawnOnce() throws Exception {
+		pool = new McpStdioClientPool(new SimpleMeterRegistry(), 8, Duration.ofMinutes(5), (name, parameters) -> {
+			sleep(100);
+			return client();
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<CompletableFuture<Void>> runs = IntStream.range(0, 64)
+				.mapToObj(i -> CompletableFuture.runAsync(() -> pool.acquire("fs", parameters(Map.of())).close(),
+						executor))
+				.toList();
+			CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(spawned).hasSize(1);
+		assertThat(pool.size()).isEqualTo(1);
+	}
+
+	@Test
+	void unhealthyClientIsReplaced() {
+		pool = pool(8, Duration.ofMinutes(5));
+
+		pool.acquire("fs", parameters(Map.of())).close();
+		McpSyncClient broken = spawned.peek();
+		when(broken.ping()).thenThrow(new IllegalStateException("process exited"));
+
+		pool.acquire("fs", parameters(Map.of())).close();
+
+		assertThat(spawned).hasSize(2);
+		verify(broken).closeGracefully();
+		assertThat(pool.size()).isEqualTo(1);
+	}
+
+	@Test
+	void fullPoolEvictsTheLeastRecentlyUsedIdleClient() {
+		pool = pool(2, Duration.ofMinutes(5));
+
+		pool.acquire("a", parameters(Map.of())).close();
+		pool.acquire("b", parameters(Map.of())).close();
+		McpSyncClient first = spawned.peek();
+
+		pool.acquire("c", parameters(Map.of())).close();
+
+		assertThat(spawned).hasSize(3);
+		assertThat(pool.size()).isEqualTo(2);
+		verify(first).closeGracefully();
+	}
+
+	@Test
+	void fullPoolRejectsWhenEveryClientIsLeased() {
+		pool = pool(1, Duration.ofMinutes(5));
+
+		McpStdioClientPool.Lease lease = pool.acquire("a", parameters(Map.of()));
+		McpSyncClient leased = spawned.peek();
+
+		assertThatThrownBy(() -> pool.acquire("b", parameters(Map.of()))).isInstanceOf(SAAAppException.class);
+		verify(leased, never()).closeGracefully();
+		assertThat(pool.size()).isEqualTo(1);
+
+		lease.close();
+		pool.acquire("b", parameters(Map.of())).close();
+		verify(leased).closeGracefully();
+		assertThat(pool.size()).isEqualTo(1);
+	}
+
+	@Test
+	void idleEvictionSkipsLeasedClients() {
+		pool = pool(8, Duration.ZERO);
+
+		McpStdioClientPool.Lease lease = pool.acquire("a", parameters(Map.of()));
+		pool.acquire("b", parameters(Map.of())).close();
+		McpSyncClient leased = spawned.poll();
+		McpSyncClient idle = spawned.poll();
+
+		pool.evictIdle();
+
+		verify(leased, never()).closeGracefully();
+		verify(idle).closeGracefully();
+
+		lease.close();
+		// closing twice must not return the client twice.
+		lease.close();
+		pool.evictIdle();
+		verify(leased, times(1)).closeGracefully();
+		assertThat(pool.size()).isZero();
+	}
+
+	@Test
+	void clientIsNotEvictedWhileItsHealthCheckRuns() throws Exception {
+		pool = pool(8, Duration.ZERO);
+		pool.acquire("a", parameters(Map.of())).close();
+		McpSyncClient client = spawned.peek();
+
+		CountDownLatch pinging = new CountDownLatch(1);
+		CountDownLatch evicted = new CountDownLatch(1);
+		when(client.ping()).thenAnswer(invocation -> {
+			pinging.countDown();
+			evicted.await(5, TimeUnit.SECONDS);
+			return null;
+		});
+
+		CompletableFuture<McpStdioClientPool.Lease> acquire = CompletableFuture
+			.supplyAsync(() -> pool.acquire("a", parameters(Map.of())));
+		assertThat(pinging.await(5, TimeUnit.SECONDS)).isTrue();
+		pool.evictIdle();
+		evicted.countDown();
+
+		McpStdioClientPool.Lease lease = acquire.get(5, TimeUnit.SECONDS);
+		verify(client, never()).closeGracefully();
+		assertThat(spawned).hasSize(1);
+		lease.close();
+	}
+
+	private McpStdioClientPool pool(int maxSize, Duration idleTimeout) {
+		return new McpStdioClientPool(new SimpleMeterRegistry(), maxSize, idleTimeout,
+				(name, parameters) -> client());
+	}
+
+	private McpSyncClient client() {
+		McpSyncClient client = mock(McpSyncClient.class);
+		when(client.listTools()).thenReturn(new McpSchema.ListToolsResult(List.of(), null));
+		spawned.add(client);
+		return client;
+	}
+
+	private static ServerParameters parameters(Map<String, String> env) {
+		return ServerParameters.builder("npx").env(env).build();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import com.alibaba.cloud.ai.application.modulerag.core.IQSSearchEngine;
+import com.alibaba.cloud.ai.application.modulerag.data.DataClean;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.rag.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebSearchRetrieverTests {
+
+	private final IQSSearchEngine searchEngine = mock(IQSSearchEngine.class);
+
+	private final WebSearchRetriever retriever = WebSearchRetriever.builder()
+		.searchEngine(searchEngine)
+		.dataCleaner(new DataClean())
+		.maxResults(2)
+		.searchTimeout(Duration.ofSeconds(10))
+		.build();
+
+	/**
+	 * The expanded queries of a request run one after another when the executor is full,
+	 * together they still end at the deadline instead of after one timeout each.
+	 */
+	@Test
+	void searchesRunInTheCallerThreadShareOneDeadline() {
+		when(searchEngine.searchAsync(anyString())).thenReturn(Mono.never());
+		Query query = Query.builder()
+			.text("question")
+			.context(Map.of(WebSearchRetriever.RETRIEVAL_DEADLINE, Instant.now().plusMillis(300)))
+			.build();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 5; i++) {
+			assertThat(retriever.retrieve(query.mutate().text("variant " + i).build())).isEmpty();
+		}
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+	}
+
+	@Test
+	void passedDeadlineSkipsTheSearch() {
+		Query query = Query.builder()
+			.text("question")
+			.context(Map.of(WebSearchRetriever.RETRIEVAL_DEADLINE, Instant.now().minusMillis(1)))
+			.build();
+
+		assertThat(retriever.retrieve(query)).isEmpty();
+		verify(searchEngine, never()).searchAsync(anyString());
+	}
+
+	@Test
+	void withoutDeadlineTheSearchTimeoutApplies() {
+		when(searchEngine.searchAsync(anyString())).thenReturn(Mono.never());
+		WebSearchRetriever shortTimeout = WebSearchRetriever.builder()
+			.searchEngine(searchEngine)
+			.dataCleaner(new DataClean())
+			.maxResults(2)
+			.searchTimeout(Duration.ofMillis(100))
+			.build();
+
+		assertThat(shortTimeout.retrieve(new Query("question"))).isEmpty();
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.cloud.ai.application.entity.iqs.IQSSearchResponse;
+import com.alibaba.cloud.ai.application.modulerag.IQSSearchProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the calls that reach a local stub of the IQS api, to show that the cache and the
+ * request coalescing actually keep repeated queries away from the paid upstream.
+ */
+class IQSSearchEngineTests {
+
+	private static final int CONCURRENT_REQUESTS = 100;
+
+	private static final String RESPONSE = """
+			{"requestId":"stub","pageItems":[{"title":"title","link":"https://example.com",
+			"mainText":"stub search result","rerankScore":0.9}]}
+			""";
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	private HttpServer server;
+
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/search/unified", this::handle);
+		server.start();
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	void concurrentIdenticalQueriesCauseOneUpstreamCall() throws Exception {
+		IQSSearchEngine engine = searchEngine(1000);
+
+		List<IQSSearchResponse> responses = Flux.range(0, CONCURRENT_REQUESTS)
+			// the cache key is normalized, case and spacing must not matter.
+			.flatMap(i -> engine.searchAsync(i % 2 == 0 ? "What is  Spring AI" : "what is spring ai "),
+					CONCURRENT_REQUESTS)
+			.collectList()
+			.block(Duration.ofSeconds(30));
+
+		assertThat(responses).hasSize(CONCURRENT_REQUESTS).allMatch(response -> "stub".equals(response.requestId()));
+		assertThat(upstreamCalls).hasValue(1);
+
+		// served from the cache afterwards, on both the blocking and the async path.
+		engine.search("what is spring ai");
+		engine.searchAsync("WHAT IS SPRING AI").block(Duration.ofSeconds(5));
+		assertThat(upstreamCalls).hasValue(1);
+
+		engine.search("what is spring ai alibaba");
+		assertThat(upstreamCalls).hasValue(2);
+
+		assertThat(counter("miss")).isEqualTo(2);
+		assertThat(counter("hit")).isGreaterThanOrEqualTo(2);
+		assertThat(counter("hit") + counter("coalesced") + counter("miss")).isEqualTo(CONCURRENT_REQUESTS + 3);
+	}
+
+	@Test
+	void everyQueryReachesUpstreamWhenTheCacheIsDisabled() throws Exception {
+		IQSSearchEngine engine = searchEngine(0);
+
+		for (int i = 0; i < 5; i++) {
+			engine.search("what is spring ai");
+		}
+
+		assertThat(upstreamCalls).hasValue(5);
+	}
+
+	private IQSSearchEngine searchEngine(long cacheMaximumSize) {
+		IQSSearchProperties properties = new IQSSearchProperties();
+		properties.setApiKey("test");
+		properties.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+		properties.setCacheMaximumSize(cacheMaximumSize);
+		return new IQSSearchEngine(RestClient.builder(), WebClient.builder(), properties,
+				new DefaultResponseErrorHandler(), meterRegistry);
+	}
+
+	private double counter(String result) {
+		return meterRegistry.counter("playground.iqs.search.cache.requests", "result", result).count();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		upstreamCalls.incrementAndGet();
+		exchange.getRequestBody().readAllBytes();
+		try {
+			// keep the call in flight long enough for the concurrent requests to pile up.
+			Thread.sleep(200);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.join;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcatenationDocumentJoinerTests {
+
+	private static final int QUERIES = 4;
+
+	private static final int DOCUMENTS_PER_QUERY = 50;
+
+	private static final int JOINS = 20_000;
+
+	@Test
+	void keepsTheBestTopKAcrossQueriesRegardlessOfQuota() {
+		Map<Query, List<List<Document>>> documentsForQuery = new LinkedHashMap<>();
+		documentsForQuery.put(new Query("strong"), List.of(List.of(document("a", 0.9), document("b", 0.8),
+				document("c", 0.7))));
+		documentsForQuery.put(new Query("weak"), List.of(List.of(document("d", 0.2), document("e", 0.1))));
+
+		List<Document> joined = new ConcatenationDocumentJoiner(3, false).join(documentsForQuery);
+
+		assertThat(joined).extracting(Document::getId).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void duplicatesKeepTheirBestScore() {
+		Map<Query, List<List<Document>>> documentsForQuery = new LinkedHashMap<>();
+		documentsForQuery.put(new Query("first"), List.of(List.of(document("low", "https://same", 0.1),
+				document("other", 0.5))));
+		documentsForQuery.put(new Query("second"), List.of(List.of(document("high", "https://same", 0.9))));
+
+		List<Document> joined = new ConcatenationDocumentJoiner(10, false).join(documentsForQuery);
+
+		assertThat(joined).extracting(Document::getId).containsExactly("high", "other");
+	}
+
+	@Test
+	void reciprocalRankFusionPrefersDocumentsFoundBySeveralQueries() {
+		Map<Query, List<List<Document>>> documentsForQuery = new LinkedHashMap<>();
+		documentsForQuery.put(new Query("first"), List.of(List.of(document("only-first", 0.9),
+				document("shared", "https://shared", 0.1))));
+		documentsForQuery.put(new Query("second"), List.of(List.of(document("only-second", 0.9),
+				document("shared-again", "https://shared", 0.1))));
+
+		List<Document> joined = new ConcatenationDocumentJoiner(2, true).join(documentsForQuery);
+
+		assertThat(joined).hasSize(2);
+		assertThat(joined.get(0).getMetadata()).containsEntry("link", "https://shared");
+	}
+
+	@Test
+	void emptyInputJoinsToEmptyList() {
+		assertThat(new ConcatenationDocumentJoiner().join(Map.of())).isEmpty();
+		assertThat(new ConcatenationDocumentJoiner().join(Map.of(new Query("q"), List.of(List.of())))).isEmpty();
+	}
+
+	/**
+	 * 4 queries with 50 scored documents each, compared with the joiner which split a fixed
+	 * quota of 10 evenly across queries. The heap looks at every document, so it is not
+	 * expected to be cheaper than taking the first ten, the cost has to stay small while the
+	 * selected documents get better.
+	 */
+	@Test
+	void topKOverAllDocumentsStaysCheapAndScoresBetterThanTheEvenQuota() {
+		Map<Query, List<List<Document>>> documentsForQuery = randomDocuments(new Random(42));
+		ConcatenationDocumentJoiner joiner = new ConcatenationDocumentJoiner(10, false);
+
+		// warm up both paths before measuring.
+		time(joiner::join, documentsForQuery);
+		time(ConcatenationDocumentJoinerTests::evenQuota, documentsForQuery);
+
+		long heapNanos = time(joiner::join, documentsForQuery);
+		long quotaNanos = time(ConcatenationDocumentJoinerTests::evenQuota, documentsForQuery);
+
+		List<Document> heap = joiner.join(documentsForQuery);
+		List<Document> quota = evenQuota(documentsForQuery);
+		assertThat(heap).hasSize(10).extracting(Document::getScore).isSortedAccordingTo(Comparator.reverseOrder());
+		assertThat(scoreSum(heap)).as("score of the top K").isGreaterThan(scoreSum(quota));
+		assertThat(heapNanos).as("heap %d ns, even quota %d ns per join", heapNanos, quotaNanos)
+			.isLessThan(1_000_000);
+	}
+
+	private static long time(Function<Map<Query, List<List<Document>>>, List<Document>> join,
+			Map<Query, List<List<Document>>> documentsForQuery) {
+		long start = System.nanoTime();
+		for (int i = 0; i < JOINS; i++) {
+			assertThat(join.apply(documentsForQuery)).isNotEmpty();
+		}
+		return (System.nanoTime() - start) / JOINS;
+	}
+
+	/**
+	 * What the joiner did before: 10 documents split evenly across queries in map order,
+	 * de-duplicated on id, source and file name.
+	 */
+	private static List<Document> evenQuota(Map<Query, List<List<Document>>> documentsForQuery) {
+		List<Query> queries = new ArrayList<>(documentsForQuery.keySet());
+		int baseCount = 10 / queries.size();
+		int remainder = 10 % queries.size();
+
+		Set<String> seen = new HashSet<>();
+		List<Document> result = new ArrayList<>();
+		for (int i = 0; i < queries.size(); i++) {
+			int remaining = baseCount + (i < remainder ? 1 : 0);
+			for (List<Document> documents : documentsForQuery.get(queries.get(i))) {
+				for (Document document : documents) {
+					if (remaining-- <= 0) {
+						break;
+					}
+					List<String> keys = new ArrayList<>();
+					keys.add(document.getId());
+					if (document.getMetadata().get("source") instanceof String source) {
+						keys.add("SOURCE:" + source);
+					}
+					if (keys.stream().allMatch(seen::add)) {
+						result.add(document);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static Map<Query, List<List<Document>>> randomDocuments(Random random) {
+		Map<Query, List<List<Document>>> documentsForQuery = new LinkedHashMap<>();
+		for (int query = 0; query < QUERIES; query++) {
+			List<Document> documents = new ArrayList<>();
+			for (int rank = 0; rank < DOCUMENTS_PER_QUERY; rank++) {
+				String id = "q" + query + "-d" + rank;
+				documents.add(document(id, "https://example.com/" + random.nextInt(120), random.nextDouble()));
+			}
+			documentsForQuery.put(new Query("query " + query), List.of(documents));
+		}
+		return documentsForQuery;
+	}
+
+	private static double scoreSum(List<Document> documents) {
+		return documents.stream().map(Document::getScore).filter(Objects::nonNull).mapToDouble(Double::doubleValue).sum();
+	}
+
+	private static Document document(String id, double score) {
+		return document(id, "https://example.com/" + id, score);
+	}
+
+	private static Document document(String id, String link, double score) {
+		return Document.builder().id(id).text("text of " + id).metadata("link", link).score(score).build();
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.modulerag.postretrieval;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+import com.alibaba.cloud.ai.model.RerankModel;
+import com.alibaba.cloud.ai.model.RerankRequest;
+import com.alibaba.cloud.ai.model.RerankResponse;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashScopeDocumentRankerTests {
+
+	private static final Query QUERY = new Query("what is spring ai");
+
+	private final StubRanker stubRanker = new StubRanker();
+
+	@Test
+	void keepsTheBestTopNInScoreOrder() {
+		DashScopeDocumentRanker ranker = DashScopeDocumentRanker.builder().rerankModel(stubRanker).topN(5).build();
+		List<Document> documents = documents(8);
+
+		List<Document> ranked = ranker.process(QUERY, documents);
+
+		assertThat(ranked).extracting(Document::getId).containsExactly("d7", "d6", "d5", "d4", "d3");
+		assertThat(ranked).extracting(Document::getScore).isSortedAccordingTo(Comparator.reverseOrder());
+		assertThat(stubRanker.requests).hasSize(1);
+		// every candidate is scored in one call, not only the provider default topN.
+		assertThat(stubRanker.requests.get(0).getOptions().getTopN()).isEqualTo(8);
+	}
+
+	@Test
+	void onlyUnscoredDocumentsAreSentAgain() {
+		DashScopeDocumentRanker ranker = DashScopeDocumentRanker.builder().rerankModel(stubRanker).topN(5).build();
+		List<Document> documents = documents(8);
+
+		ranker.process(QUERY, documents);
+		List<Document> cached = ranker.process(new Query("  What is Spring AI "), documents);
+
+		assertThat(stubRanker.requests).hasSize(1);
+		assertThat(cached).extracting(Document::getId).containsExactly("d7", "d6", "d5", "d4", "d3");
+
+		List<Document> withNewDocument = new ArrayList<>(documents);
+		withNewDocument.add(document("d8", 0.95, "a new document"));
+		List<Document> ranked = ranker.process(QUERY, withNewDocument);
+
+		assertThat(stubRanker.requests).hasSize(2);
+		assertThat(stubRanker.requests.get(1).getInstructions()).extracting(Document::getId).containsExactly("d8");
+		assertThat(ranked).extracting(Document::getId).startsWith("d8");
+	}
+
+	@Test
+	void truncatesDocumentsToTheTokenBudget() {
+		DashScopeDocumentRanker ranker = DashScopeDocumentRanker.builder()
+			.rerankModel(stubRanker)
+			.maxTokensPerDocument(16)
+			.build();
+		String longText = "spring ai alibaba ".repeat(200);
+
+		ranker.process(QUERY, List.of(document("long", 0.5, longText)));
+
+		String sent = stubRanker.requests.get(0).getInstructions().get(0).getText();
+		assertThat(sent).isNotEmpty().hasSizeLessThan(longText.length());
+	}
+
+	@Test
+	void keepsRetrievalOrderWhenRerankFails() {
+		RerankModel failing = request -> {
+			throw new IllegalStateException("rerank unavailable");
+		};
+		DashScopeDocumentRanker ranker = DashScopeDocumentRanker.builder().rerankModel(failing).topN(3).build();
+
+		List<Document> ranked = ranker.process(QUERY, documents(5));
+
+		assertThat(ranked).extracting(Document::getId).containsExactly("d0", "d1", "d2");
+	}
+
+	private static List<Document> documents(int count) {
+		return IntStream.range(0, count).mapToObj(i -> document("d" + i, i / 10.0, "document " + i)).toList();
+	}
+
+	private static Document document(String id, double stubScore, String text) {
+		return Document.builder().id(id).text(text).metadata("link", "https://example.com/" + id)
+			.metadata("stubScore", stubScore).build();
+	}
+
+	/**
+	 * Scores documents from their {@code stubScore} metadata and, like the DashScope api,
+	 * only returns the best {@code topN} results, 3 when no options are given.
+	 */
+	private static final class StubRanker implements RerankModel {
+
+		private final List<RerankRequest> requests = new ArrayList<>();
+
+		@Override
+		public RerankResponse call(RerankRequest request) {
+			requests.add(request);
+			int topN = request.getOptions() != null && request.getOptions().getTopN() != null
+					? request.getOptions().getTopN() : 3;
+			return new RerankResponse(request.getInstructions()
+				.stream()
+				.map(document -> DocumentWithScore.builder()
+					.withDocument(document)
+					.withScore((Double) document.getMetadata().get("stubScore"))
+					.build())
+				.sorted(Comparator.comparingDouble(DocumentWithScore::getScore).reversed())
+				.limit(topN)
+				.toList());
+		}
+
+	}
+
+}
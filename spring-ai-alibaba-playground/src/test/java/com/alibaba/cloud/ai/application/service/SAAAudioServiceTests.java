@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SAAAudioServiceTests {
+
+	private static final int MAX_SEGMENT_LENGTH = 120;
+
+	@Test
+	void emptyInputHasNoSegments() {
+		assertThat(SAAAudioService.splitSentences("")).isEmpty();
+		assertThat(SAAAudioService.splitSentences("  \n ")).isEmpty();
+		assertThat(SAAAudioService.splitSentences("。！？")).containsExactly("。！？");
+	}
+
+	@Test
+	void mixedPunctuationIsMergedIntoOneShortSegment() {
+		List<String> segments = SAAAudioService.splitSentences("你好。Hello world. How are you? 我很好！Pi is 3.14; ok");
+
+		assertThat(segments).containsExactly("你好。Hello world. How are you? 我很好！Pi is 3.14; ok");
+	}
+
+	@Test
+	void sentencesAreMergedUpToTheSegmentLength() {
+		String sentence = "这是一个用来测试的句子。";
+		String text = sentence.repeat(30);
+
+		List<String> segments = SAAAudioService.splitSentences(text);
+
+		assertThat(segments).hasSizeGreaterThan(1)
+			.allSatisfy(segment -> assertThat(segment).hasSizeLessThanOrEqualTo(MAX_SEGMENT_LENGTH).endsWith("。"));
+		assertThat(String.join("", segments)).isEqualTo(text);
+	}
+
+	@Test
+	void latinSentencesKeepTheSpaceBetweenThem() {
+		String sentence = "This sentence is used for testing. ";
+		String text = sentence.repeat(10).strip();
+
+		List<String> segments = SAAAudioService.splitSentences(text);
+
+		assertThat(segments).hasSizeGreaterThan(1)
+			.allSatisfy(segment -> assertThat(segment).hasSizeLessThanOrEqualTo(MAX_SEGMENT_LENGTH)
+				.startsWith("This")
+				.endsWith("."));
+		assertThat(String.join(" ", segments)).isEqualTo(text);
+	}
+
+	@Test
+	void longSentenceWithoutPunctuationIsHardCut() {
+		String cjk = "字".repeat(300);
+		assertThat(SAAAudioService.splitSentences(cjk)).extracting(String::length).containsExactly(120, 120, 60);
+
+		String ascii = "a".repeat(250);
+		assertThat(SAAAudioService.splitSentences(ascii)).extracting(String::length).containsExactly(120, 120, 10);
+	}
+
+	@Test
+	void longSentenceIsCutAtTheLastClausePunctuation() {
+		String text = "字".repeat(70) + "，" + "字".repeat(30) + "、" + "字".repeat(60) + "。";
+
+		List<String> segments = SAAAudioService.splitSentences(text);
+
+		assertThat(segments).containsExactly("字".repeat(70) + "，" + "字".repeat(30) + "、", "字".repeat(60) + "。");
+	}
+
+	@Test
+	void shortSentenceAfterALongOneStartsANewSegment() {
+		String text = "字".repeat(130) + "。短句。";
+
+		List<String> segments = SAAAudioService.splitSentences(text);
+
+		assertThat(segments).containsExactly("字".repeat(120), "字".repeat(10) + "。", "短句。");
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.cloud.ai.application.utils.ModelsUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SAABaseServiceTests {
+
+	private static final int LOOKUPS = 2_000;
+
+	@TempDir
+	Path tempDir;
+
+	private SAABaseService service;
+
+	@AfterEach
+	void tearDown() throws IOException {
+		if (service != null) {
+			service.destroy();
+		}
+	}
+
+	@Test
+	void modelsWithoutDescriptionAreLoadedAndReloaded() throws Exception {
+		Path modelsFile = tempDir.resolve("models.yaml");
+		write(modelsFile, """
+				dashScope:
+				  - name: qwen-plus
+				    description: "balanced"
+				  - name: qwen-turbo
+				""");
+
+		service = new SAABaseService(modelsFile.toString());
+		service.init();
+
+		assertThat(service.getDashScope()).contains(Map.of("model", "qwen-turbo", "desc", ""));
+		assertThat(service.isSupportedModel("qwen-turbo")).isTrue();
+
+		write(modelsFile, """
+				dashScope:
+				  - name: qwen-max
+				""");
+
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (!service.isSupportedModel("qwen-max") && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertThat(service.isSupportedModel("qwen-max")).isTrue();
+		assertThat(service.isSupportedModel("qwen-plus")).isFalse();
+	}
+
+	/**
+	 * Compares the preloaded lookup with what every chat request used to do: parse
+	 * models.yaml and flatten the maps.
+	 */
+	@Test
+	void lookupIsCheaperThanParsingTheCatalogPerRequest() throws Exception {
+		service = new SAABaseService("");
+		service.init();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			Set<Map<String, String>> dashScope = ModelsUtils.getDashScopeModels();
+			List<String> modelName = dashScope.stream()
+					.flatMap(map -> map.keySet().stream().map(map::get))
+					.distinct()
+					.toList();
+			assertThat(modelName).contains("qwen-plus");
+		}
+		long parseNanos = (System.nanoTime() - start) / LOOKUPS;
+
+		start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			assertThat(service.isSupportedModel("qwen-plus")).isTrue();
+		}
+		long lookupNanos = (System.nanoTime() - start) / LOOKUPS;
+
+		assertThat(lookupNanos).as("lookup %d ns, parse per request %d ns", lookupNanos, parseNanos)
+				.isLessThan(parseNanos);
+	}
+
+	private static void write(Path file, String content) throws IOException {
+		// write a sibling and move it over, the watcher must never see a half written file.
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		Files.writeString(tmp, content, StandardCharsets.UTF_8);
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+}
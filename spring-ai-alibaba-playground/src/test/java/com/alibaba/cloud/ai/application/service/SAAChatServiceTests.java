@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.alibaba.cloud.ai.application.advisor.ReasoningContentAdvisor;
+import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.dashscope.api.DashScopeResponseFormat;
+import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the chat service against a stub model which answers every prompt with a reasoning
+ * chunk and an answer chunk.
+ */
+class SAAChatServiceTests {
+
+	private static final String R1 = DashScopeApi.ChatModel.DEEPSEEK_R1.getValue();
+
+	private static final int CHATS = 1_000;
+
+	private static final int SPECS_PER_CHAT = 20;
+
+	private final StubChatModel chatModel = new StubChatModel();
+
+	private final SimpleLoggerAdvisor loggerAdvisor = new SimpleLoggerAdvisor();
+
+	private final MessageChatMemoryAdvisor memoryAdvisor = MessageChatMemoryAdvisor
+		.builder(MessageWindowChatMemory.builder().build())
+		.build();
+
+	private SAAChatService service;
+
+	@BeforeEach
+	void setUp() {
+		SAABaseService baseService = new SAABaseService("");
+		baseService.init();
+
+		service = new SAAChatService(mock(DashScopeApi.class), baseService, loggerAdvisor, memoryAdvisor, chatModel,
+				new PromptTemplate("system"), new PromptTemplate("think step by step"));
+		ReflectionTestUtils.setField(service, "enable", false);
+		service.init();
+	}
+
+	@Test
+	void reasoningAdvisorIsAttachedForReasoningModelsOnly() {
+		assertThat(join(service.chat("1", R1, "hi"))).isEqualTo("<think>thinking</think>answer");
+		assertThat(join(service.chat("2", "qwen-plus", "hi"))).isEqualTo("answer");
+		assertThat(join(service.deepThinkingChat("3", R1, "hi"))).isEqualTo("answer");
+
+		assertThat(chatModel.models).containsExactly(R1, "qwen-plus", R1);
+	}
+
+	@Test
+	void modelsAddedAfterStartupAreBuiltOnDemand() {
+		assertThat(join(service.chat("1", "qwen-new", "hi"))).isEqualTo("answer");
+
+		assertThat(chatModel.models).containsExactly("qwen-new");
+	}
+
+	@Test
+	void concurrentChatsKeepTheirOwnModelAndAdvisors() {
+		List<String> answers = Flux.range(0, CHATS)
+			.flatMap(chat -> service.chat(String.valueOf(chat), chat % 2 == 0 ? R1 : "qwen-plus", "hi")
+				.subscribeOn(Schedulers.boundedElastic())
+				.collect(Collectors.joining())
+				.map(answer -> chat + ":" + answer), CHATS)
+			.collectList()
+			.block();
+
+		assertThat(answers).hasSize(CHATS).allSatisfy(answer -> {
+			int chat = Integer.parseInt(answer.substring(0, answer.indexOf(':')));
+			String expected = chat % 2 == 0 ? "<think>thinking</think>answer" : "answer";
+			assertThat(answer).isEqualTo(chat + ":" + expected);
+		});
+	}
+
+	/**
+	 * Request spec construction under 1k concurrent callers, compared with what chat() did
+	 * before: new options per request and a throwaway spec for the reasoning advisor.
+	 */
+	@Test
+	void sharedOptionsAreCheaperThanBuildingThemPerRequest() throws Exception {
+		ChatClient chatClient = ChatClient.builder(chatModel)
+			.defaultSystem("system")
+			.defaultAdvisors(loggerAdvisor, memoryAdvisor)
+			.build();
+		ReasoningContentAdvisor reasoningContentAdvisor = new ReasoningContentAdvisor(1);
+
+		Supplier<Flux<String>> perRequest = () -> {
+			chatClient.prompt().advisors(reasoningContentAdvisor);
+			DashScopeChatOptions runtimeOptions = DashScopeChatOptions.builder()
+				.withModel(R1)
+				.withTemperature(0.8)
+				.withResponseFormat(
+						DashScopeResponseFormat.builder().type(DashScopeResponseFormat.Type.TEXT).build())
+				.build();
+			return chatClient.prompt()
+				.options(runtimeOptions)
+				.user("hi")
+				.advisors(advisor -> advisor.param(ChatMemory.CONVERSATION_ID, "1"))
+				.stream()
+				.content();
+		};
+		Supplier<Flux<String>> shared = () -> service.chat("1", R1, "hi");
+
+		// warm up both paths before measuring.
+		timeConcurrentSpecs(perRequest);
+		timeConcurrentSpecs(shared);
+
+		long perRequestNanos = timeConcurrentSpecs(perRequest);
+		long sharedNanos = timeConcurrentSpecs(shared);
+
+		assertThat(sharedNanos).as("shared %d ns, per request %d ns per spec", sharedNanos, perRequestNanos)
+			.isLessThan(perRequestNanos);
+	}
+
+	private static long timeConcurrentSpecs(Supplier<Flux<String>> spec) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4);
+		try {
+			List<Future<?>> futures = new ArrayList<>(CHATS);
+			long start = System.nanoTime();
+			for (int chat = 0; chat < CHATS; chat++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < SPECS_PER_CHAT; i++) {
+						assertThat(spec.get()).isNotNull();
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(1, TimeUnit.MINUTES);
+			}
+			return (System.nanoTime() - start) / ((long) CHATS * SPECS_PER_CHAT);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static String join(Flux<String> content) {
+		return content.collect(Collectors.joining()).block();
+	}
+
+	/**
+	 * Streams a deepseek-r1 style answer and records the model of every prompt.
+	 */
+	private static final class StubChatModel implements ChatModel {
+
+		private final Queue<String> models = new ConcurrentLinkedQueue<>();
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			models.add(prompt.getOptions().getModel());
+			return Flux.just(
+					new ChatResponse(List.of(new Generation(
+							new AssistantMessage("", Map.of("reasoningContent", "thinking"))))),
+					new ChatResponse(List.of(new Generation(new AssistantMessage("answer")))));
+		}
+
+	}
+
+}
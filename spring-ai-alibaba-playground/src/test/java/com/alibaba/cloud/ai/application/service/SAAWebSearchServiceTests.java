@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.alibaba.cloud.ai.application.entity.dashscope.ChatResponseDTO;
+import com.alibaba.cloud.ai.application.entity.iqs.IQSSearchResponse;
+import com.alibaba.cloud.ai.application.modulerag.core.IQSSearchEngine;
+import com.alibaba.cloud.ai.application.modulerag.data.DataClean;
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+import com.alibaba.cloud.ai.model.RerankModel;
+import com.alibaba.cloud.ai.model.RerankRequest;
+import com.alibaba.cloud.ai.model.RerankResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.document.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs many web search chats at once against a stubbed search engine and checks that
+ * every answer only carries the documents and links of its own request.
+ */
+class SAAWebSearchServiceTests {
+
+	private static final int REQUESTS = 500;
+
+	private static final Pattern TAG = Pattern.compile("\\[q-\\d{4}]");
+
+	private final Queue<String> crossTalk = new ConcurrentLinkedQueue<>();
+
+	private SAAWebSearchService service;
+
+	@AfterEach
+	void tearDown() {
+		if (service != null) {
+			service.destroy();
+		}
+	}
+
+	@Test
+	void concurrentChatsDoNotShareSearchResults() {
+		IQSSearchEngine searchEngine = mock(IQSSearchEngine.class);
+		when(searchEngine.searchAsync(anyString())).thenAnswer(invocation -> {
+			String query = invocation.getArgument(0);
+			return Mono.fromCallable(() -> searchResponse(query)).subscribeOn(Schedulers.boundedElastic());
+		});
+
+		RerankModel rerankModel = mock(RerankModel.class);
+		when(rerankModel.call(any(RerankRequest.class))).thenAnswer(invocation -> {
+			RerankRequest request = invocation.getArgument(0);
+			String tag = tagOf(request.getQuery());
+			for (Document document : request.getInstructions()) {
+				if (!String.valueOf(document.getMetadata().get("link")).endsWith(tag)) {
+					crossTalk.add(tag + " reranked " + document.getMetadata().get("link"));
+				}
+			}
+			return new RerankResponse(request.getInstructions()
+				.stream()
+				.map(document -> DocumentWithScore.builder().withDocument(document).withScore(1.0).build())
+				.toList());
+		});
+
+		service = new SAAWebSearchService(new DataClean(), query -> List.of(query), searchEngine, query -> query,
+				new SimpleLoggerAdvisor(), new EchoChatModel(), new PromptTemplate("{context}\n\nQuery: {query}"), 10,
+				false, 5, Duration.ofSeconds(15), rerankModel);
+
+		Map<Integer, String> answers = Flux.range(0, REQUESTS)
+			.flatMap(i -> service.chat("question " + tag(i))
+				.map(ChatResponseDTO::response)
+				.collect(Collectors.joining())
+				.map(answer -> Map.entry(i, answer)), REQUESTS)
+			.collectMap(Map.Entry::getKey, Map.Entry::getValue)
+			.block(Duration.ofMinutes(2));
+
+		assertThat(answers).hasSize(REQUESTS);
+		IntStream.range(0, REQUESTS).forEach(i -> {
+			String answer = answers.get(i);
+			assertThat(answer).contains("result " + tag(i));
+			assertThat(tagsIn(answer)).as("tags seen by request %d", i).containsOnly(tag(i));
+		});
+		assertThat(crossTalk).isEmpty();
+	}
+
+	@Test
+	void hangingSearchesEndAtTheRetrievalDeadline() {
+		IQSSearchEngine searchEngine = mock(IQSSearchEngine.class);
+		when(searchEngine.searchAsync(anyString())).thenReturn(Mono.never());
+		RerankModel rerankModel = mock(RerankModel.class);
+		when(rerankModel.call(any(RerankRequest.class))).thenReturn(new RerankResponse(List.of()));
+
+		List<String> expanded = IntStream.range(0, 8).mapToObj(i -> "variant " + i).toList();
+		service = new SAAWebSearchService(new DataClean(), query -> expanded.stream()
+			.map(text -> query.mutate().text(text).build())
+			.toList(), searchEngine, query -> query, new SimpleLoggerAdvisor(), new EchoChatModel(),
+				new PromptTemplate("{context}\n\nQuery: {query}"), 10, false, 5, Duration.ofMillis(500),
+				rerankModel);
+
+		long start = System.nanoTime();
+		String answer = service.chat("question")
+			.map(ChatResponseDTO::response)
+			.collect(Collectors.joining())
+			.block(Duration.ofSeconds(30));
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		// every search would otherwise wait for its own 10 s timeout.
+		assertThat(answer).isNotNull();
+		assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+	}
+
+	private static IQSSearchResponse searchResponse(String query) {
+		String tag = tagOf(query);
+		List<IQSSearchResponse.PageItem> pageItems = IntStream.range(0, 3)
+			.mapToObj(k -> new IQSSearchResponse.PageItem("title " + k, "https://example.com/" + k + "/" + tag, null,
+					null, "result " + tag + " item " + k, null, null, "example.com", null, null, 1.0 - k * 0.1))
+			.toList();
+		return new IQSSearchResponse("request-" + tag, pageItems, null, null,
+				new IQSSearchResponse.QueryContext("Generic", new IQSSearchResponse.OriginalQuery(query, "OneWeek"), null),
+				null);
+	}
+
+	private static String tag(int i) {
+		return String.format("[q-%04d]", i);
+	}
+
+	private static String tagOf(String text) {
+		Matcher matcher = TAG.matcher(text);
+		return matcher.find() ? matcher.group() : "";
+	}
+
+	private static Set<String> tagsIn(String text) {
+		return TAG.matcher(text).results().map(Matcher::group).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Answers with the augmented user message, so the answer shows which documents the
+	 * request was given.
+	 */
+	private static final class EchoChatModel implements ChatModel {
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			return new ChatResponse(List.of(new Generation(new AssistantMessage(prompt.getUserMessage().getText()))));
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.just(call(prompt));
+		}
+
+	}
+
+}
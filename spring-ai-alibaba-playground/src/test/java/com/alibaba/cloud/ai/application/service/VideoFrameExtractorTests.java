@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 用 FFmpegFrameRecorder 生成 1080p 测试视频, 每秒一个灰度, 解码后的灰度即可反推出帧所在的秒数.
+ */
+class VideoFrameExtractorTests {
+
+    private static final int WIDTH = 1920;
+
+    private static final int HEIGHT = 1080;
+
+    private static final int FPS = 10;
+
+    private static final int FRAME_COUNT = 10;
+
+    private final VideoFrameExtractor extractor = new VideoFrameExtractor(768, 0.8f);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void framesAreEvenlySpacedScaledJpegs() throws IOException {
+        // 每秒一个关键帧, 20 个关键帧足够, 只解码关键帧
+        Path clip = record(20, FPS);
+
+        List<byte[]> frames = extractor.extract(clip, FRAME_COUNT);
+
+        assertThat(frames).hasSize(FRAME_COUNT);
+        List<Integer> seconds = new ArrayList<>();
+        for (byte[] jpeg : frames) {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+            assertThat(image.getWidth()).isEqualTo(768);
+            assertThat(image.getHeight()).isEqualTo(432);
+            seconds.add(second(image));
+        }
+        // 采样点是每 2 秒一段的中点
+        assertThat(seconds).containsExactly(1, 3, 5, 7, 9, 11, 13, 15, 17, 19);
+    }
+
+    @Test
+    void sparseKeyFramesFallBackToOneForwardDecode() throws IOException {
+        // 5 秒只有 5 个关键帧, 不够 10 帧, 回到开头顺序解码
+        Path clip = record(5, FPS);
+
+        List<byte[]> frames = extractor.extract(clip, FRAME_COUNT);
+
+        assertThat(frames).hasSize(FRAME_COUNT);
+        List<Integer> seconds = new ArrayList<>();
+        for (byte[] jpeg : frames) {
+            seconds.add(second(ImageIO.read(new ByteArrayInputStream(jpeg))));
+        }
+        assertThat(seconds).isSorted().containsExactly(0, 0, 1, 1, 2, 2, 3, 3, 4, 4);
+    }
+
+    @Test
+    void missingFileFailsWithIOException() {
+        Path missing = tempDir.resolve("missing.mp4");
+
+        assertThatThrownBy(() -> extractor.extract(missing, FRAME_COUNT))
+                .isInstanceOf(IOException.class);
+    }
+
+    /**
+     * 不同时长的 1080p 视频, 与之前每帧 setFrameNumber 再写 PNG 临时文件的方式对比
+     */
+    @Test
+    void forwardPassIsFasterThanSeekingEveryFrame() throws IOException {
+        for (int seconds : new int[] { 10, 30, 60 }) {
+            Path clip = record(seconds, FPS);
+
+            // 预热
+            extractor.extract(clip, FRAME_COUNT);
+            seekEveryFrame(clip, FRAME_COUNT);
+
+            long start = System.nanoTime();
+            List<byte[]> frames = extractor.extract(clip, FRAME_COUNT);
+            long forwardMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            List<File> pngs = seekEveryFrame(clip, FRAME_COUNT);
+            long seekMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(frames).hasSize(FRAME_COUNT);
+            assertThat(pngs).hasSize(FRAME_COUNT);
+            assertThat(forwardMillis)
+                    .as("%d s clip: forward pass %d ms, seek every frame %d ms", seconds, forwardMillis, seekMillis)
+                    .isLessThan(seekMillis);
+        }
+    }
+
+    /**
+     * 之前 SAAVideoService 的抽帧方式
+     */
+    private List<File> seekEveryFrame(Path clip, int frameCount) throws IOException {
+        List<File> frames = new ArrayList<>();
+        Java2DFrameConverter converter = new Java2DFrameConverter();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(clip.toFile())) {
+            grabber.start();
+            int step = grabber.getLengthInFrames() / frameCount;
+            for (int i = 0; i < frameCount; i++) {
+                grabber.setFrameNumber(i * step);
+                BufferedImage image = converter.convert(grabber.grabImage());
+                File outputFile = tempDir.resolve(UUID.randomUUID() + ".png").toFile();
+                ImageIO.write(image, "png", outputFile);
+                frames.add(outputFile);
+            }
+        }
+        return frames;
+    }
+
+    private Path record(int seconds, int fps) throws IOException {
+        Path clip = tempDir.resolve(seconds + "s.mp4");
+        Java2DFrameConverter converter = new Java2DFrameConverter();
+        try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(clip.toFile(), WIDTH, HEIGHT)) {
+            recorder.setFormat("mp4");
+            recorder.setVideoCodec(avcodec.AV_CODEC_ID_MPEG4);
+            recorder.setFrameRate(fps);
+            recorder.setGopSize(fps);
+            recorder.setVideoBitrate(4_000_000);
+            recorder.start();
+
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+            for (int i = 0; i < seconds * fps; i++) {
+                int level = level(i / fps);
+                Graphics2D graphics = image.createGraphics();
+                try {
+                    graphics.setColor(new Color(level, level, level));
+                    graphics.fillRect(0, 0, WIDTH, HEIGHT);
+                    // 移动的色块, 让帧间有真实的运动
+                    graphics.setColor(Color.RED);
+                    graphics.fillRect((i * 16) % (WIDTH - 200), 100, 200, 200);
+                }
+                finally {
+                    graphics.dispose();
+                }
+                Frame frame = converter.convert(image);
+                recorder.record(frame);
+            }
+        }
+        return clip;
+    }
+
+    /**
+     * 第 second 秒的灰度, 相邻秒相差 9, 足以承受两次有损编码, 24 秒后循环
+     */
+    private static int level(int second) {
+        return 20 + (second % 24) * 9;
+    }
+
+    private static int second(BufferedImage image) {
+        // 取底部中间, 避开移动的色块
+        int rgb = image.getRGB(image.getWidth() / 2, image.getHeight() - 10);
+        int gray = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
+        return Math.round((gray - 20) / 9f);
+    }
+
+}